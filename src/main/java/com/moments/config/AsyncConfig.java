@@ -1,18 +1,53 @@
 package com.moments.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Background executors. With {@code spring.threads.virtual.enabled=true} on a JDK 21+ runtime they run tasks on
+ * virtual threads (Spring Boot switches Tomcat request handling with the same property); on JDK 17 the property
+ * is ignored and the platform-thread pools below are used.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /** Upper bound on concurrent face-tagging tasks when they run on virtual threads (no pool to cap them). */
+    @Value("${moments.async.virtual.concurrency-limit:32}")
+    private int virtualConcurrencyLimit;
+
+    /**
+     * Face-tagging follow-up work, submitted from the HTTP client's I/O reactor callbacks, so submitting must never
+     * block: on virtual threads every task starts at once and waits for a permit inside its own thread; the
+     * platform pool rejects (failing the future) once its queue is full.
+     */
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
+        if (useVirtualThreads()) {
+            return new PermitBoundedExecutor(new VirtualThreadTaskExecutor("AsyncFaceRecognition-"),
+                    virtualConcurrencyLimit);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
@@ -21,4 +56,113 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /** Runs the face-tagging outbox poller and batch timers, and the sweep of abandoned direct uploads. */
+    @Bean(name = "retryScheduler", destroyMethod = "shutdown")
+    public ScheduledExecutorService retryScheduler() {
+        if (useVirtualThreads()) {
+            return Executors.newScheduledThreadPool(2,
+                    new VirtualThreadTaskExecutor("FaceTaggingRetry-").getVirtualThreadFactory());
+        }
+        return Executors.newScheduledThreadPool(2, new CustomizableThreadFactory("FaceTaggingRetry-"));
+    }
+
+    /** Fire-and-forget work such as push notifications; previously {@code CompletableFuture}'s common pool. */
+    @Bean(name = "backgroundExecutor", destroyMethod = "")
+    public Executor backgroundExecutor() {
+        if (useVirtualThreads()) {
+            return new VirtualThreadTaskExecutor("Background-");
+        }
+        return ForkJoinPool.commonPool();
+    }
+
+    /** Runs per-file GCS uploads for bulk requests; each request bounds its own share via BulkUploadService. */
+    @Bean(name = "uploadExecutor")
+    public Executor uploadExecutor(@Value("${moments.upload.executor.threads:16}") int threads) {
+        if (useVirtualThreads()) {
+            return new VirtualThreadTaskExecutor("Upload-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("Upload-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** Drive folder listing: one task per folder, so sibling folders are paged concurrently. */
+    @Bean(name = "driveListExecutor")
+    public Executor driveListExecutor(@Value("${google.drive.import.list-threads:4}") int threads) {
+        return importStageExecutor("DriveList-", threads);
+    }
+
+    /** Drive import stage 1: Firestore/GCS existence checks before a file is downloaded. */
+    @Bean(name = "driveCheckExecutor")
+    public Executor driveCheckExecutor(@Value("${google.drive.import.check-threads:4}") int threads) {
+        return importStageExecutor("DriveCheck-", threads);
+    }
+
+    /** Drive import stage 2: Drive download streamed into the GCS upload, one file per thread. */
+    @Bean(name = "driveTransferExecutor")
+    public Executor driveTransferExecutor(@Value("${google.drive.import.transfer-threads:8}") int threads) {
+        return importStageExecutor("DriveTransfer-", threads);
+    }
+
+    private Executor importStageExecutor(String prefix, int threads) {
+        if (useVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(prefix);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Unlike {@link SimpleAsyncTaskExecutor#setConcurrencyLimit}, which blocks the submitting thread at the limit,
+     * this bounds how many tasks run at once while {@link #execute} returns immediately.
+     */
+    private static final class PermitBoundedExecutor implements TaskExecutor {
+        private final TaskExecutor delegate;
+        private final Semaphore permits;
+
+        private PermitBoundedExecutor(TaskExecutor delegate, int limit) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(Math.max(1, limit));
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    private boolean useVirtualThreads() {
+        if (!virtualThreadsEnabled) {
+            return false;
+        }
+        if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            logger.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; using platform threads",
+                    JavaVersion.getJavaVersion());
+            return false;
+        }
+        return true;
+    }
 }
@@ -1,6 +1,7 @@
 package com.moments.config;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.NoCredentials;
 import com.google.cloud.http.HttpTransportOptions;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
@@ -18,8 +19,20 @@ public class CloudStorageConfig {
     @Autowired
     private GoogleCredentials googleCredentials;
 
+    /** Local GCS stand-in such as fake-gcs-server ({@code http://localhost:4443}); empty for real GCS. */
+    @Value("${gcp.storage.emulator-host:}")
+    private String emulatorHost;
+
     @Bean
     public Storage getStorage() {
+        if (emulatorHost != null && !emulatorHost.isBlank()) {
+            return StorageOptions.newBuilder()
+                    .setHost(emulatorHost)
+                    .setProjectId(projectId)
+                    .setCredentials(NoCredentials.getInstance())
+                    .build()
+                    .getService();
+        }
         HttpTransportOptions http = HttpTransportOptions.newBuilder()
                 .setConnectTimeout(120_000)
                 .setReadTimeout(300_000)
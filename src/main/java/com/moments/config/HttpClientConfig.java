@@ -1,15 +1,80 @@
 package com.moments.config;
 
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Pooled async client for the face-tagging service. Batch tagging and selfie matching hit the same host, so the
+ * per-route limit (not the default of 2) is what bounds throughput; pool gauges are published under
+ * {@code httpcomponents.httpclient.pool.*{httpclient=face-tagging}}.
+ */
 @Configuration
 public class HttpClientConfig {
 
+    @Value("${face.tagging.service.timeout:30000}")
+    private long responseTimeoutMs;
+
+    @Value("${face.tagging.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${face.tagging.http.connection-request-timeout-ms:10000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${face.tagging.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${face.tagging.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${face.tagging.http.idle-evict-ms:30000}")
+    private long idleEvictMs;
+
+    @Value("${face.tagging.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager faceTaggingConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient httpAsyncClient(PoolingAsyncClientConnectionManager faceTaggingConnectionManager) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(faceTaggingConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                // Reuse connections for at most keepAliveMs even if the server advertises no Keep-Alive timeout
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+        client.start();
+        return client;
+    }
+
     @Bean
-    public CloseableHttpClient httpClient() {
-        return HttpClients.createDefault();
+    public MeterBinder faceTaggingConnectionPoolMetrics(PoolingAsyncClientConnectionManager faceTaggingConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(faceTaggingConnectionManager, "face-tagging");
     }
-} 
\ No newline at end of file
+}
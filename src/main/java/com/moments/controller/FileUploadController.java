@@ -13,10 +13,16 @@ import com.moments.models.GoogleDriveImportRequest;
 import com.moments.models.GoogleDriveImportResponse;
 import com.moments.models.ComputerUploadSessionRequest;
 import com.moments.models.UploadRecord;
+import com.moments.models.SignedUploadFinalizeRequest;
+import com.moments.models.SignedUploadRequest;
+import com.moments.models.SignedUploadTarget;
+import com.moments.service.BulkUploadService;
+import com.moments.service.DirectUploadService;
 import com.moments.service.GoogleCloudStorageService;
 import com.moments.service.GoogleDriveImportService;
 import com.moments.service.MomentService;
 import com.moments.service.UploadRecordService;
+import com.moments.utils.ImageHeaderParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -61,7 +67,15 @@ public class FileUploadController {
     @Autowired
     private UploadRecordService uploadRecordService;
 
-    private static final int BATCH_SIZE = 5;
+    @Autowired
+    private BulkUploadService bulkUploadService;
+
+    @Autowired
+    private DirectUploadService directUploadService;
+
+    private static String fileNameOf(MultipartFile file) {
+        return file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
+    }
 
     @PostMapping("/upload")
     public ResponseEntity<BaseResponse> uploadFile(@RequestParam("file") MultipartFile file, @RequestParam("fileType") FileType fileType) {
@@ -98,29 +112,14 @@ public class FileUploadController {
             List<FileUploadResponse> successfulFiles = new ArrayList<>();
             List<BulkUploadResponse.FileUploadError> failedFiles = new ArrayList<>();
 
-            // Process files in batches of 5 to manage memory and avoid overwhelming the system
-            for (int i = 0; i < files.length; i += BATCH_SIZE) {
-                int endIndex = Math.min(i + BATCH_SIZE, files.length);
-                
-                // Process current batch
-                for (int j = i; j < endIndex; j++) {
-                    MultipartFile file = files[j];
-                    String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
-                    
-                    try {
-                        if (file.isEmpty()) {
-                            failedFiles.add(new BulkUploadResponse.FileUploadError(
-                                    fileName, "File is empty"));
-                            continue;
-                        }
-
-                        // Upload the file and get its public URL
-                        FileUploadResponse fileUploadResponse = storageService.uploadFile(file, fileType);
-                        successfulFiles.add(fileUploadResponse);
-                    } catch (Exception e) {
-                        failedFiles.add(new BulkUploadResponse.FileUploadError(
-                                fileName, "Upload failed: " + e.getMessage()));
-                    }
+            // Upload in parallel with bounded concurrency and memory; outcomes keep the request order
+            List<BulkUploadService.UploadOutcome> outcomes = bulkUploadService.uploadAll(files, i -> fileType);
+            for (int i = 0; i < files.length; i++) {
+                BulkUploadService.UploadOutcome outcome = outcomes.get(i);
+                if (outcome.isSuccess()) {
+                    successfulFiles.add(outcome.getResponse());
+                } else {
+                    failedFiles.add(new BulkUploadResponse.FileUploadError(fileNameOf(files[i]), outcome.getError()));
                 }
             }
 
@@ -201,47 +200,36 @@ public class FileUploadController {
             List<Moment> momentsToCreate = new ArrayList<>();
             List<BulkUploadResponse.FileUploadError> failedFiles = new ArrayList<>();
 
-            // Process files in batches of 5 to manage memory and avoid overwhelming the system
-            for (int i = 0; i < files.length; i += BATCH_SIZE) {
-                int endIndex = Math.min(i + BATCH_SIZE, files.length);
-                
-                // Process current batch
-                for (int j = i; j < endIndex; j++) {
-                    MultipartFile file = files[j];
-                    Long createdTimestamp = createdTimestamps[j];
-                    String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
-                    
-                    try {
-                        if (file.isEmpty()) {
-                            failedFiles.add(new BulkUploadResponse.FileUploadError(
-                                    fileName, "File is empty"));
-                            continue;
-                        }
-
-                        // Upload the file and get its public URL
-                        FileUploadResponse fileUploadResponse = storageService.uploadFile(file, FileType.IMAGE);
-                        
-                        // Create Media object with the uploaded URL
-                        Media media = new Media();
-                        media.setUrl(fileUploadResponse.getPublicUrl());
-                        media.setType(MediaType.IMAGE);
-                        
-                        // Create Moment object with individual timestamp
-                        Moment moment = new Moment();
-                        moment.setCreatorId(creatorUserID);
-                        moment.setEventId(eventId);
-                        moment.setCreationTime(createdTimestamp);
-                        moment.setMedia(media);
-                        MomentMemoryUsage usage = new MomentMemoryUsage();
-                        usage.setOriginalUploadSizeBytes(file.getSize());
-                        moment.setMemoryUsage(usage);
-
-                        momentsToCreate.add(moment);
-                    } catch (Exception e) {
-                        failedFiles.add(new BulkUploadResponse.FileUploadError(
-                                fileName, "Upload failed: " + e.getMessage()));
-                    }
+            // Upload in parallel with bounded concurrency and memory; outcomes keep the request order
+            List<BulkUploadService.UploadOutcome> outcomes = bulkUploadService.uploadAll(files, i -> FileType.IMAGE);
+            for (int i = 0; i < files.length; i++) {
+                MultipartFile file = files[i];
+                BulkUploadService.UploadOutcome outcome = outcomes.get(i);
+                if (!outcome.isSuccess()) {
+                    failedFiles.add(new BulkUploadResponse.FileUploadError(fileNameOf(file), outcome.getError()));
+                    continue;
                 }
+
+                // Create Media object with the uploaded URL
+                Media media = new Media();
+                media.setUrl(outcome.getResponse().getPublicUrl());
+                media.setType(MediaType.IMAGE);
+
+                // Create Moment object with individual timestamp
+                Moment moment = new Moment();
+                moment.setCreatorId(creatorUserID);
+                moment.setEventId(eventId);
+                moment.setCreationTime(createdTimestamps[i]);
+                moment.setMedia(media);
+                MomentMemoryUsage usage = new MomentMemoryUsage();
+                usage.setOriginalUploadSizeBytes(file.getSize());
+                moment.setMemoryUsage(usage);
+                moment.setContentSha256(outcome.getResponse().getContentSha256());
+                moment.setUploadedInRequest(true);
+                // Dimensions and aspect ratio from the image header; client timestamps win over EXIF
+                ImageHeaderParser.fillMissing(moment, outcome.getImageHeader());
+
+                momentsToCreate.add(moment);
             }
 
             // Save all moments in batch
@@ -349,52 +337,38 @@ public class FileUploadController {
             List<Moment> momentsToCreate = new ArrayList<>();
             List<BulkUploadResponse.FileUploadError> failedFiles = new ArrayList<>();
 
-            // Process files in batches of 5 to manage memory and avoid overwhelming the system
-            for (int i = 0; i < files.length; i += BATCH_SIZE) {
-                int endIndex = Math.min(i + BATCH_SIZE, files.length);
-                
-                // Process current batch
-                for (int j = i; j < endIndex; j++) {
-                    MultipartFile file = files[j];
-                    Moment moment = moments.get(j);
-                    String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
-                    
-                    try {
-                        if (file.isEmpty()) {
-                            failedFiles.add(new BulkUploadResponse.FileUploadError(
-                                    fileName, "File is empty"));
-                            continue;
-                        }
-
-                        // Determine file type from moment's media type
-                        FileType fileType = FileType.IMAGE;
-                        if (moment.getMedia().getType() != null) {
-                            fileType = moment.getMedia().getType() == MediaType.VIDEO ? FileType.VIDEO : FileType.IMAGE;
-                        }
-
-                        // Upload the file and get its public URL
-                        FileUploadResponse fileUploadResponse = storageService.uploadFile(file, fileType);
-                        
-                        // Update the moment's media URL with the uploaded URL
-                        moment.getMedia().setUrl(fileUploadResponse.getPublicUrl());
-
-                        MomentMemoryUsage usage = moment.getMemoryUsage() != null
-                                ? moment.getMemoryUsage()
-                                : new MomentMemoryUsage();
-                        usage.setOriginalUploadSizeBytes(file.getSize());
-                        moment.setMemoryUsage(usage);
-                        
-                        // Ensure media type is set correctly
-                        if (moment.getMedia().getType() == null) {
-                            moment.getMedia().setType( MediaType.IMAGE);
-                        }
-                        
-                        momentsToCreate.add(moment);
-                    } catch (Exception e) {
-                        failedFiles.add(new BulkUploadResponse.FileUploadError(
-                                fileName, "Upload failed: " + e.getMessage()));
-                    }
+            // Determine file type from each moment's media type, then upload in parallel
+            List<BulkUploadService.UploadOutcome> outcomes = bulkUploadService.uploadAll(files,
+                    i -> moments.get(i).getMedia().getType() == MediaType.VIDEO ? FileType.VIDEO : FileType.IMAGE);
+            for (int i = 0; i < files.length; i++) {
+                MultipartFile file = files[i];
+                Moment moment = moments.get(i);
+                BulkUploadService.UploadOutcome outcome = outcomes.get(i);
+                if (!outcome.isSuccess()) {
+                    failedFiles.add(new BulkUploadResponse.FileUploadError(fileNameOf(file), outcome.getError()));
+                    continue;
+                }
+
+                // Update the moment's media URL with the uploaded URL
+                moment.getMedia().setUrl(outcome.getResponse().getPublicUrl());
+
+                MomentMemoryUsage usage = moment.getMemoryUsage() != null
+                        ? moment.getMemoryUsage()
+                        : new MomentMemoryUsage();
+                usage.setOriginalUploadSizeBytes(file.getSize());
+                moment.setMemoryUsage(usage);
+                // Only trust the hash computed from the uploaded bytes
+                moment.setContentSha256(outcome.getResponse().getContentSha256());
+                moment.setUploadedInRequest(true);
+
+                // Ensure media type is set correctly
+                if (moment.getMedia().getType() == null) {
+                    moment.getMedia().setType( MediaType.IMAGE);
                 }
+                // Fill dimensions, aspect ratio and capture time the client left out from the image header
+                ImageHeaderParser.fillMissing(moment, outcome.getImageHeader());
+
+                momentsToCreate.add(moment);
             }
 
             // Save all moments in batch
@@ -434,6 +408,55 @@ public class FileUploadController {
         }
     }
 
+    /**
+     * Issue direct-to-bucket resumable upload URLs for a batch of files. The client uploads each file to GCS and
+     * then calls {@code /signed-uploads/finalize} with the returned object names.
+     */
+    @PostMapping("/signed-uploads")
+    public ResponseEntity<BaseResponse> createSignedUploads(@RequestBody SignedUploadRequest request) {
+        try {
+            if (request == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new BaseResponse("Request body is required", HttpStatus.BAD_REQUEST, null));
+            }
+            List<SignedUploadTarget> targets = directUploadService.createUploadTargets(request);
+            return ResponseEntity.ok(new BaseResponse("Upload URLs issued", HttpStatus.OK, targets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new BaseResponse(e.getMessage(), HttpStatus.BAD_REQUEST, null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new BaseResponse("Failed to issue upload URLs: " + e.getMessage(),
+                            HttpStatus.INTERNAL_SERVER_ERROR, null));
+        }
+    }
+
+    /**
+     * Verify objects uploaded through {@code /signed-uploads} and create their moments.
+     */
+    @PostMapping("/signed-uploads/finalize")
+    public ResponseEntity<BaseResponse> finalizeSignedUploads(@RequestBody SignedUploadFinalizeRequest request) {
+        try {
+            if (request == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new BaseResponse("Request body is required", HttpStatus.BAD_REQUEST, null));
+            }
+            BulkUploadResponse bulkResponse = directUploadService.finalizeUploads(request);
+            HttpStatus status = bulkResponse.getFailedUploads() == 0 ? HttpStatus.OK
+                    : (bulkResponse.getSuccessfulUploads() == 0 ? HttpStatus.BAD_REQUEST : HttpStatus.PARTIAL_CONTENT);
+            String message = String.format("Finalized %d of %d uploads", bulkResponse.getSuccessfulUploads(),
+                    bulkResponse.getTotalFiles());
+            return ResponseEntity.status(status).body(new BaseResponse(message, status, bulkResponse));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new BaseResponse(e.getMessage(), HttpStatus.BAD_REQUEST, null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new BaseResponse("Failed to finalize uploads: " + e.getMessage(),
+                            HttpStatus.INTERNAL_SERVER_ERROR, null));
+        }
+    }
+
     /**
      * Import images from a publicly shared Google Drive folder or file link (recursive for folders).
      * Configure {@code google.drive.api.key} for "Anyone with the link" content, or
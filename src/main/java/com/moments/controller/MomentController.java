@@ -1,7 +1,8 @@
 package com.moments.controller;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
@@ -71,6 +72,12 @@ public class MomentController {
                         .body(new BaseResponse("No moments provided for bulk save", HttpStatus.BAD_REQUEST, null));
             }
 
+            // Dedup trusts contentSha256 only when the server hashed the bytes itself
+            for (Moment moment : moments) {
+                if (moment != null) {
+                    moment.setContentSha256(null);
+                }
+            }
             List<String> results = momentService.saveMoments(moments, true);
 
             
@@ -159,28 +166,36 @@ public class MomentController {
     }
 
     @PostMapping("/feed")
-    public ResponseEntity<BaseResponse> getMomentsFeed(@RequestBody MomentsRequest request,
+    public CompletableFuture<ResponseEntity<BaseResponse>> getMomentsFeed(@RequestBody MomentsRequest request,
             @RequestHeader(value = "fcm_token", required = false) String fcmToken) {
         try {
             if (request.getUserId() != null && fcmToken != null && request.getCursor() == null) {
                 notificationService.saveOrUpdateFCMToken(request.getUserId(), fcmToken);
             }
-            MomentsResponse response = new MomentsResponse(new ArrayList<>(), null);
+            CompletableFuture<MomentsResponse> response;
             if (request.getFilter() != null && request.getFilter().getLikedById() != null) {
                 // Liked Feed
-                response = momentService.getLikedMomentsFeed(request.getFilter().getLikedById(), request.getEventId(),
-                        request.getCursor());
+                response = CompletableFuture.completedFuture(momentService.getLikedMomentsFeed(
+                        request.getFilter().getLikedById(), request.getEventId(), request.getCursor()));
             } else {
-                // Default feed
-                response = momentService.findMoments(request.getEventId(), request.getFilter(), request.getCursor(),
-                        request.getUserId());
+                // Default feed; the servlet thread is released while Firestore reads are in flight
+                response = momentService.findMomentsAsync(request.getEventId(), request.getFilter(),
+                        request.getCursor(), request.getUserId());
             }
 
-            return ResponseEntity.status(HttpStatus.OK).body(new BaseResponse("Success", HttpStatus.OK, response));
+            return response
+                    .thenApply(body -> ResponseEntity.status(HttpStatus.OK)
+                            .body(new BaseResponse("Success", HttpStatus.OK, body)))
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body(new BaseResponse("Failed to get moment error: " + cause.getMessage(),
+                                        HttpStatus.INTERNAL_SERVER_ERROR, null));
+                    });
         } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new BaseResponse("Failed to get moment error: " + e.getMessage(),
-                            HttpStatus.INTERNAL_SERVER_ERROR, null));
+                            HttpStatus.INTERNAL_SERVER_ERROR, null)));
         }
     }
 
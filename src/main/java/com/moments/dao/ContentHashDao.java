@@ -0,0 +1,22 @@
+package com.moments.dao;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import com.moments.models.ContentHash;
+
+public interface ContentHashDao {
+
+    /** @return null if no moment in the event has this content hash */
+    ContentHash find(String eventId, String sha256) throws ExecutionException, InterruptedException;
+
+    /** Batched lookup (one round trip); the result is keyed by SHA-256 and omits hashes not indexed yet. */
+    Map<String, ContentHash> findAll(String eventId, Collection<String> sha256s)
+            throws ExecutionException, InterruptedException;
+
+    /** @return false if the hash was already indexed for the event (the existing entry is kept) */
+    boolean createIfAbsent(ContentHash entry) throws ExecutionException, InterruptedException;
+
+    void delete(String eventId, String sha256) throws ExecutionException, InterruptedException;
+}
@@ -0,0 +1,26 @@
+package com.moments.dao;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import com.moments.models.DriveImportCheckpoint;
+
+public interface DriveImportCheckpointDao {
+
+    /** @return null if the import has no checkpoint */
+    DriveImportCheckpoint get(String uploadRecordId) throws ExecutionException, InterruptedException;
+
+    /** Listing snapshot chunks in order; null if any chunk is missing. */
+    List<byte[]> getListingChunks(String uploadRecordId, int chunkCount)
+            throws ExecutionException, InterruptedException;
+
+    /** Writes the snapshot chunks and the listing fields of {@code checkpoint} in one batch. */
+    void saveListing(DriveImportCheckpoint checkpoint, List<byte[]> chunks)
+            throws ExecutionException, InterruptedException;
+
+    void saveProgress(String uploadRecordId, byte[] completed, int lastProcessedIndex)
+            throws ExecutionException, InterruptedException;
+
+    /** Removes the checkpoint and its snapshot chunks; no-op if there is none. */
+    void delete(String uploadRecordId) throws ExecutionException, InterruptedException;
+}
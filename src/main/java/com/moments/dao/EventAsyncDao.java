@@ -0,0 +1,19 @@
+package com.moments.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.moments.models.Event;
+
+/** Non-blocking read variants of {@link EventDao}. */
+public interface EventAsyncDao {
+    /** Completes exceptionally with a {@link RuntimeException} when the event does not exist. */
+    CompletableFuture<Event> getEventByIdAsync(String id);
+
+    CompletableFuture<List<String>> getUserIdsInEventAsync(String eventId);
+
+    CompletableFuture<List<Event>> getEventsByDocumentIdsAsync(List<String> documentIds);
+
+    CompletableFuture<Void> adjustAggregatedStorageAsync(String eventId, long deltaOriginal, long deltaOptimised,
+            long deltaThumbnail);
+}
@@ -40,5 +40,11 @@ public interface EventDao {
      */
     void adjustAggregatedStorage(String eventId, long deltaOriginal, long deltaOptimised, long deltaThumbnail)
             throws ExecutionException, InterruptedException;
-}
 
+    /**
+     * Atomically adds to {@link com.moments.models.Event#getDedupSavings()} when uploads are linked to an
+     * existing moment by content hash.
+     */
+    void recordDedupSavings(String eventId, long duplicates, long bytesSaved)
+            throws ExecutionException, InterruptedException;
+}
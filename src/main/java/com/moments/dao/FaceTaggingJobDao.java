@@ -0,0 +1,34 @@
+package com.moments.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntToLongFunction;
+
+import com.google.cloud.firestore.WriteBatch;
+import com.moments.models.FaceTaggingJob;
+
+public interface FaceTaggingJobDao {
+
+    /** Adds the job to {@code batch}, so it commits (or not) together with the caller's other writes. */
+    void stage(WriteBatch batch, FaceTaggingJob job);
+
+    /**
+     * Leases up to {@code limit} due pending jobs (new, backed off, or whose lease expired) to {@code owner} for
+     * {@code leaseMs}, in one transaction so two workers never claim the same job.
+     */
+    List<FaceTaggingJob> claimDue(String owner, long leaseMs, int limit)
+            throws ExecutionException, InterruptedException;
+
+    /** Deletes the jobs; completing a job twice (or one already deleted) is a no-op. */
+    void complete(Collection<String> momentIds) throws ExecutionException, InterruptedException;
+
+    /**
+     * Records a failed attempt of a job still leased by {@code owner}: schedules the next attempt
+     * {@code retryDelayMs.applyAsLong(attempts)} from now, or marks it dead after {@code maxAttempts}.
+     *
+     * @return the updated job, or null if it is gone or was re-leased by another worker meanwhile
+     */
+    FaceTaggingJob recordFailure(String momentId, String owner, String error, int maxAttempts,
+            IntToLongFunction retryDelayMs) throws ExecutionException, InterruptedException;
+}
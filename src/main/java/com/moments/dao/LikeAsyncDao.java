@@ -0,0 +1,16 @@
+package com.moments.dao;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.moments.models.Like;
+
+/** Non-blocking read variants of {@link LikeDao}. */
+public interface LikeAsyncDao {
+    CompletableFuture<Set<String>> getLikedMomentIdsAsync(String userId, List<String> momentIds);
+
+    CompletableFuture<List<Like>> getLikesByUserAsync(String userId, String eventId, int offset, int limit);
+
+    CompletableFuture<Integer> getTotalLikesByUserAsync(String userId, String eventId);
+}
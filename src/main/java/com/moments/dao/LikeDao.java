@@ -4,6 +4,7 @@ import com.moments.models.Like;
 import com.moments.models.Moment;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 public interface LikeDao {
@@ -12,6 +13,9 @@ public interface LikeDao {
     boolean deleteLike(String userId, String momentId) throws ExecutionException, InterruptedException;
     
     boolean isLikedByUser(String userId, String momentId) throws ExecutionException, InterruptedException;
+
+    /** Ids among {@code momentIds} liked by {@code userId}, resolved with batched reads of the like documents. */
+    Set<String> getLikedMomentIds(String userId, List<String> momentIds) throws ExecutionException, InterruptedException;
     
     List<Like> getLikesByUser(String userId, String eventId, int offset, int limit) throws ExecutionException, InterruptedException;
     
@@ -0,0 +1,42 @@
+package com.moments.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.moments.models.Moment;
+
+/**
+ * Non-blocking read variants of {@link MomentDao}. Futures complete when Firestore responds; failures complete
+ * exceptionally with the Firestore exception.
+ */
+public interface MomentAsyncDao {
+    CompletableFuture<Moment> getMomentByIdAsync(String id);
+
+    CompletableFuture<List<Moment>> getAllMomentsAsync(String eventId, String creatorRoleFilter);
+
+    CompletableFuture<List<Moment>> getMomentsFeedAsync(String creatorUserId, String eventId, int offset, int limit,
+            String creatorRoleFilter);
+
+    CompletableFuture<List<Moment>> getMomentsFeedAfterAsync(String creatorUserId, String eventId,
+            Long lastCreatedTime, String lastMomentId, int limit, String creatorRoleFilter);
+
+    CompletableFuture<List<Moment>> getMomentsFeedByTaggedUserAsync(String taggedUserId, String eventId, int offset,
+            int limit, String creatorRoleFilter);
+
+    CompletableFuture<List<Moment>> getMomentsFeedByTaggedUserAfterAsync(String taggedUserId, String eventId,
+            Long lastCreatedTime, String lastMomentId, int limit, String creatorRoleFilter);
+
+    CompletableFuture<Integer> getTotalCountAsync(String creatorUserId, String eventId, String creatorRoleFilter);
+
+    CompletableFuture<Integer> getTotalCountByTaggedUserAsync(String taggedUserId, String eventId,
+            String creatorRoleFilter);
+
+    CompletableFuture<List<Moment>> getMomentsByIdsAsync(List<String> momentIds);
+
+    CompletableFuture<List<Moment>> getMomentsFeedByCreatorIdsAsync(List<String> creatorIds, String eventId,
+            int offset, int limit);
+
+    CompletableFuture<Integer> getTotalCountByCreatorIdsAsync(List<String> creatorIds, String eventId);
+
+    CompletableFuture<Boolean> momentExistsAsync(String momentId);
+}
@@ -1,8 +1,12 @@
 package com.moments.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
+import com.moments.models.FaceTaggingJob;
+import com.moments.models.FaceTaggingStorageUpdate;
 import com.moments.models.Moment;
 import com.moments.models.MomentStatus;
 import com.moments.models.ReportRequest;
@@ -18,7 +22,8 @@ public interface MomentDao {
     
     List<Moment> getAllMoments(String eventId, String creatorRoleFilter) throws ExecutionException, InterruptedException;
 
-    void deleteMoment(String id) throws ExecutionException, InterruptedException;
+    /** {@code eventId} is the deleted moment's event, whose cached totals are dropped; null if unknown. */
+    void deleteMoment(String id, String eventId) throws ExecutionException, InterruptedException;
 
     List<Moment> getMomentsFeed(String creatorUserId, String eventId, int offset, int limit)
             throws ExecutionException, InterruptedException;
@@ -26,12 +31,23 @@ public interface MomentDao {
     List<Moment> getMomentsFeed(String creatorUserId, String eventId, int offset, int limit, String creatorRoleFilter)
             throws ExecutionException, InterruptedException;
 
+    /**
+     * Keyset page of the approved feed: starts strictly after ({@code lastCreatedTime}, {@code lastMomentId}) in
+     * feed order and reads at most {@code limit} documents. Both cursor values null means the first page.
+     */
+    List<Moment> getMomentsFeedAfter(String creatorUserId, String eventId, Long lastCreatedTime, String lastMomentId,
+            int limit, String creatorRoleFilter) throws ExecutionException, InterruptedException;
+
     List<Moment> getMomentsFeedByTaggedUser(String taggedUserId, String eventId, int offset, int limit)
             throws ExecutionException, InterruptedException;
     
     List<Moment> getMomentsFeedByTaggedUser(String taggedUserId, String eventId, int offset, int limit, String creatorRoleFilter)
             throws ExecutionException, InterruptedException;
 
+    /** Keyset variant of {@link #getMomentsFeedByTaggedUser}; see {@link #getMomentsFeedAfter}. */
+    List<Moment> getMomentsFeedByTaggedUserAfter(String taggedUserId, String eventId, Long lastCreatedTime,
+            String lastMomentId, int limit, String creatorRoleFilter) throws ExecutionException, InterruptedException;
+
     int getTotalCount(String creatorUserId, String eventId) throws ExecutionException, InterruptedException;
     
     int getTotalCount(String creatorUserId, String eventId, String creatorRoleFilter) throws ExecutionException, InterruptedException;
@@ -50,6 +66,10 @@ public interface MomentDao {
 
     List<String> saveMomentsBatch(List<Moment> moments) throws ExecutionException, InterruptedException;
 
+    /** Saves the moments and their face-tagging outbox jobs in one atomic batch. */
+    List<String> saveMomentsBatch(List<Moment> moments, List<FaceTaggingJob> faceTaggingJobs)
+            throws ExecutionException, InterruptedException;
+
     List<Moment> getMomentsFeedByCreatorIds(List<String> creatorIds, String eventId, int offset, int limit)
             throws ExecutionException, InterruptedException;
 
@@ -63,9 +83,25 @@ public interface MomentDao {
      */
     void updateMomentFaceTaggingStorage(String momentId, String feedUrl, String thumbnailUrl,
             Long optimisedSizeBytes, Long thumbnailSizeBytes) throws ExecutionException, InterruptedException;
+
+    /**
+     * {@link #updateMomentFaceTaggingStorage} for many moments at once: the current sizes are read with
+     * {@code getAll} and the moment updates are written in one batch. A single summed aggregated-storage increment
+     * per event follows as a separate write; its failures are logged. Missing moments are skipped.
+     *
+     * @return the number of moments updated
+     */
+    int applyFaceTaggingStorageUpdates(List<FaceTaggingStorageUpdate> updates)
+            throws ExecutionException, InterruptedException;
     
     int updateAllMomentsCreatorRoleForEvent(String eventId, String creatorRole) throws ExecutionException, InterruptedException;
 
     /** True if a moment document exists with this id (for idempotent Drive import). */
     boolean momentExists(String momentId) throws ExecutionException, InterruptedException;
+
+    /** Subset of {@code momentIds} that exist, from batched {@code getAll} reads of one small field. */
+    Set<String> findExistingMomentIds(Collection<String> momentIds) throws ExecutionException, InterruptedException;
+
+    /** Subset of {@code momentIds} that exist and are {@link MomentStatus#APPROVED}, read like the above. */
+    Set<String> findApprovedMomentIds(Collection<String> momentIds) throws ExecutionException, InterruptedException;
 }
@@ -0,0 +1,14 @@
+package com.moments.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.moments.models.UserProfile;
+
+/** Non-blocking read variants of {@link UserProfileDao}. */
+public interface UserProfileAsyncDao {
+    /** Completes with {@code null} when the profile does not exist. */
+    CompletableFuture<UserProfile> getUserProfileAsync(String userId);
+
+    CompletableFuture<List<UserProfile>> getUserProfilesAsync(List<String> userIds);
+}
@@ -0,0 +1,96 @@
+package com.moments.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.moments.dao.ContentHashDao;
+import com.moments.models.ContentHash;
+
+@Repository
+public class ContentHashDaoImpl implements ContentHashDao {
+
+    private static final String COLLECTION = "contentHashes";
+
+    /** Document references per {@code getAll} RPC. */
+    private static final int GET_ALL_BATCH_SIZE = 100;
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public ContentHash find(String eventId, String sha256) throws ExecutionException, InterruptedException {
+        if (eventId == null || eventId.isBlank() || sha256 == null || sha256.isBlank()) {
+            return null;
+        }
+        DocumentSnapshot doc = ref(eventId, sha256).get().get();
+        return doc.exists() ? doc.toObject(ContentHash.class) : null;
+    }
+
+    @Override
+    public Map<String, ContentHash> findAll(String eventId, Collection<String> sha256s)
+            throws ExecutionException, InterruptedException {
+        Map<String, ContentHash> found = new HashMap<>();
+        if (eventId == null || eventId.isBlank() || sha256s == null || sha256s.isEmpty()) {
+            return found;
+        }
+        List<String> hashes = new ArrayList<>(new LinkedHashSet<>(sha256s));
+        for (int start = 0; start < hashes.size(); start += GET_ALL_BATCH_SIZE) {
+            List<String> slice = hashes.subList(start, Math.min(start + GET_ALL_BATCH_SIZE, hashes.size()));
+            DocumentReference[] refs = new DocumentReference[slice.size()];
+            for (int i = 0; i < slice.size(); i++) {
+                refs[i] = ref(eventId, slice.get(i));
+            }
+            for (DocumentSnapshot doc : firestore.getAll(refs).get()) {
+                if (doc.exists()) {
+                    ContentHash entry = doc.toObject(ContentHash.class);
+                    if (entry != null && entry.getSha256() != null) {
+                        found.put(entry.getSha256(), entry);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean createIfAbsent(ContentHash entry) throws ExecutionException, InterruptedException {
+        if (entry.getCreatedAt() == null) {
+            entry.setCreatedAt(System.currentTimeMillis());
+        }
+        try {
+            ref(entry.getEventId(), entry.getSha256()).create(entry).get();
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException
+                    && ((ApiException) e.getCause()).getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String eventId, String sha256) throws ExecutionException, InterruptedException {
+        if (eventId == null || eventId.isBlank() || sha256 == null || sha256.isBlank()) {
+            return;
+        }
+        ref(eventId, sha256).delete().get();
+    }
+
+    private DocumentReference ref(String eventId, String sha256) {
+        return firestore.collection(COLLECTION).document(eventId.trim() + "_" + sha256);
+    }
+}
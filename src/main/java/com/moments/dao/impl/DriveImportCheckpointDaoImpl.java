@@ -0,0 +1,121 @@
+package com.moments.dao.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import com.moments.dao.DriveImportCheckpointDao;
+import com.moments.models.DriveImportCheckpoint;
+
+@Repository
+public class DriveImportCheckpointDaoImpl implements DriveImportCheckpointDao {
+
+    private static final String COLLECTION = "driveImportCheckpoints";
+    private static final String LISTING_COLLECTION = "listing";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public DriveImportCheckpoint get(String uploadRecordId) throws ExecutionException, InterruptedException {
+        if (uploadRecordId == null || uploadRecordId.isBlank()) {
+            return null;
+        }
+        DocumentSnapshot snap = ref(uploadRecordId).get().get();
+        if (!snap.exists()) {
+            return null;
+        }
+        DriveImportCheckpoint checkpoint = snap.toObject(DriveImportCheckpoint.class);
+        if (checkpoint != null) {
+            checkpoint.setUploadRecordId(snap.getId());
+        }
+        return checkpoint;
+    }
+
+    @Override
+    public List<byte[]> getListingChunks(String uploadRecordId, int chunkCount)
+            throws ExecutionException, InterruptedException {
+        if (chunkCount <= 0) {
+            return new ArrayList<>();
+        }
+        DocumentReference[] refs = new DocumentReference[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            refs[i] = chunkRef(uploadRecordId, i);
+        }
+        List<byte[]> chunks = new ArrayList<>(chunkCount);
+        // getAll returns documents in the order of refs
+        for (DocumentSnapshot doc : firestore.getAll(refs).get()) {
+            Blob files = doc.exists() ? doc.getBlob("files") : null;
+            if (files == null) {
+                return null;
+            }
+            chunks.add(files.toBytes());
+        }
+        return chunks;
+    }
+
+    @Override
+    public void saveListing(DriveImportCheckpoint checkpoint, List<byte[]> chunks)
+            throws ExecutionException, InterruptedException {
+        String id = checkpoint.getUploadRecordId();
+        WriteBatch batch = firestore.batch();
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Object> chunk = new HashMap<>();
+            chunk.put("files", Blob.fromBytes(chunks.get(i)));
+            batch.set(chunkRef(id, i), chunk);
+        }
+        Map<String, Object> m = new HashMap<>();
+        m.put("eventId", checkpoint.getEventId());
+        m.put("driveLink", checkpoint.getDriveLink());
+        m.put("listingComplete", checkpoint.isListingComplete());
+        m.put("listingTruncated", checkpoint.isListingTruncated());
+        m.put("fileCount", checkpoint.getFileCount());
+        m.put("listingChunkCount", chunks.size());
+        m.put("updatedAt", System.currentTimeMillis());
+        // Merge: progress saved while the walk was still running is kept
+        batch.set(ref(id), m, SetOptions.merge());
+        batch.commit().get();
+    }
+
+    @Override
+    public void saveProgress(String uploadRecordId, byte[] completed, int lastProcessedIndex)
+            throws ExecutionException, InterruptedException {
+        Map<String, Object> m = new HashMap<>();
+        m.put("completed", Blob.fromBytes(completed));
+        m.put("lastProcessedIndex", lastProcessedIndex);
+        m.put("updatedAt", System.currentTimeMillis());
+        ref(uploadRecordId).set(m, SetOptions.merge()).get();
+    }
+
+    @Override
+    public void delete(String uploadRecordId) throws ExecutionException, InterruptedException {
+        if (uploadRecordId == null || uploadRecordId.isBlank()) {
+            return;
+        }
+        WriteBatch batch = firestore.batch();
+        for (DocumentReference chunk : ref(uploadRecordId).collection(LISTING_COLLECTION).listDocuments()) {
+            batch.delete(chunk);
+        }
+        batch.delete(ref(uploadRecordId));
+        batch.commit().get();
+    }
+
+    private DocumentReference ref(String uploadRecordId) {
+        return firestore.collection(COLLECTION).document(uploadRecordId.trim());
+    }
+
+    private DocumentReference chunkRef(String uploadRecordId, int index) {
+        return ref(uploadRecordId).collection(LISTING_COLLECTION).document(String.valueOf(index));
+    }
+}
@@ -2,10 +2,13 @@ package com.moments.dao.impl;
 
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.firestore.*;
+import com.moments.dao.EventAsyncDao;
 import com.moments.dao.EventDao;
 import com.moments.models.Event;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
@@ -14,14 +17,23 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static com.moments.utils.FirestoreFutures.toCompletable;
 
 @Repository
-public class EventDaoImpl implements EventDao {
+public class EventDaoImpl implements EventDao, EventAsyncDao {
 
     @Autowired
     private Firestore firestore;
 
+    /** Firestore completions hop here, so result mapping never runs on the RPC callback thread. */
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private Executor backgroundExecutor;
+
     private static final String COLLECTION_NAME = "events";
 
     @Override
@@ -51,6 +63,17 @@ public class EventDaoImpl implements EventDao {
         }
     }
 
+    @Override
+    public CompletableFuture<Event> getEventByIdAsync(String id) {
+        DocumentReference documentReference = firestore.collection(COLLECTION_NAME).document(id);
+        return toCompletable(documentReference.get(), backgroundExecutor).thenApply(document -> {
+            if (!document.exists()) {
+                throw new RuntimeException("Event not found with ID: " + id);
+            }
+            return document.toObject(Event.class);
+        });
+    }
+
     @Override
     public List<Event> getAllEvents() throws ExecutionException, InterruptedException {
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
@@ -107,6 +130,11 @@ public class EventDaoImpl implements EventDao {
         return getEventById(eventId).getUserIds();
     }
 
+    @Override
+    public CompletableFuture<List<String>> getUserIdsInEventAsync(String eventId) {
+        return getEventByIdAsync(eventId).thenApply(Event::getUserIds);
+    }
+
     
     @Override
     public List<Event> getEventsByIds(List<String> eventIds) throws ExecutionException, InterruptedException {
@@ -146,13 +174,17 @@ public class EventDaoImpl implements EventDao {
 
     @Override
     public List<Event> getEventsByDocumentIds(List<String> documentIds) throws ExecutionException, InterruptedException {
-        List<Event> ordered = new ArrayList<>();
+        return getEventsByDocumentIdsAsync(documentIds).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> getEventsByDocumentIdsAsync(List<String> documentIds) {
         if (documentIds == null || documentIds.isEmpty()) {
-            return ordered;
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        Map<String, Event> byDocId = new HashMap<>();
         final int batchSize = 10;
+        List<ApiFuture<List<DocumentSnapshot>>> futures = new ArrayList<>();
         for (int i = 0; i < documentIds.size(); i += batchSize) {
             int end = Math.min(i + batchSize, documentIds.size());
             List<String> batch = documentIds.subList(i, end);
@@ -160,24 +192,29 @@ public class EventDaoImpl implements EventDao {
             for (String id : batch) {
                 refs.add(collection.document(id));
             }
-            ApiFuture<List<DocumentSnapshot>> future = firestore.getAll(refs.toArray(new DocumentReference[0]));
-            List<DocumentSnapshot> snaps = future.get();
-            for (DocumentSnapshot snap : snaps) {
-                if (snap.exists()) {
-                    Event event = snap.toObject(Event.class);
-                    if (event != null) {
-                        byDocId.put(snap.getId(), event);
+            futures.add(firestore.getAll(refs.toArray(new DocumentReference[0])));
+        }
+        return toCompletable(ApiFutures.allAsList(futures), backgroundExecutor).thenApply(results -> {
+            Map<String, Event> byDocId = new HashMap<>();
+            for (List<DocumentSnapshot> snaps : results) {
+                for (DocumentSnapshot snap : snaps) {
+                    if (snap.exists()) {
+                        Event event = snap.toObject(Event.class);
+                        if (event != null) {
+                            byDocId.put(snap.getId(), event);
+                        }
                     }
                 }
             }
-        }
-        for (String id : documentIds) {
-            Event e = byDocId.get(id);
-            if (e != null) {
-                ordered.add(e);
+            List<Event> ordered = new ArrayList<>();
+            for (String id : documentIds) {
+                Event e = byDocId.get(id);
+                if (e != null) {
+                    ordered.add(e);
+                }
             }
-        }
-        return ordered;
+            return ordered;
+        });
     }
 
     @Override
@@ -220,13 +257,25 @@ public class EventDaoImpl implements EventDao {
     @Override
     public void adjustAggregatedStorage(String eventId, long deltaOriginal, long deltaOptimised, long deltaThumbnail)
             throws ExecutionException, InterruptedException {
+        adjustAggregatedStorageAsync(eventId, deltaOriginal, deltaOptimised, deltaThumbnail).get();
+    }
+
+    @Override
+    public CompletableFuture<Void> adjustAggregatedStorageAsync(String eventId, long deltaOriginal,
+            long deltaOptimised, long deltaThumbnail) {
         if (eventId == null || eventId.isBlank()) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         if (deltaOriginal == 0L && deltaOptimised == 0L && deltaThumbnail == 0L) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         DocumentReference ref = firestore.collection(COLLECTION_NAME).document(eventId);
+        return toCompletable(ref.update(aggregatedStorageIncrements(deltaOriginal, deltaOptimised, deltaThumbnail)),
+                backgroundExecutor).thenApply(result -> null);
+    }
+
+    private static Map<String, Object> aggregatedStorageIncrements(long deltaOriginal, long deltaOptimised,
+            long deltaThumbnail) {
         Map<String, Object> updates = new HashMap<>();
         if (deltaOriginal != 0L) {
             updates.put("aggregatedStorage.originalUploadSizeBytes", FieldValue.increment(deltaOriginal));
@@ -237,7 +286,19 @@ public class EventDaoImpl implements EventDao {
         if (deltaThumbnail != 0L) {
             updates.put("aggregatedStorage.thumbnailSizeBytes", FieldValue.increment(deltaThumbnail));
         }
-        ref.update(updates).get();
+        return updates;
+    }
+
+    @Override
+    public void recordDedupSavings(String eventId, long duplicates, long bytesSaved)
+            throws ExecutionException, InterruptedException {
+        if (eventId == null || eventId.isBlank() || (duplicates == 0L && bytesSaved == 0L)) {
+            return;
+        }
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("dedupSavings.duplicatesSkipped", FieldValue.increment(duplicates));
+        updates.put("dedupSavings.bytesSaved", FieldValue.increment(bytesSaved));
+        firestore.collection(COLLECTION_NAME).document(eventId).update(updates).get();
     }
 
 
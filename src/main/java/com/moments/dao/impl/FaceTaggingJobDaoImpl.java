@@ -0,0 +1,107 @@
+package com.moments.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.moments.dao.FaceTaggingJobDao;
+import com.moments.models.FaceTaggingJob;
+
+/**
+ * Firestore outbox for face tagging. {@link #claimDue} needs a composite index on
+ * {@code faceTaggingJobs (status ASC, nextAttemptAt ASC)} in production; the emulator does not.
+ */
+@Repository
+public class FaceTaggingJobDaoImpl implements FaceTaggingJobDao {
+
+    private static final String COLLECTION = "faceTaggingJobs";
+
+    /** Limit on error text stored on a job. */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public void stage(WriteBatch batch, FaceTaggingJob job) {
+        batch.set(ref(job.getMomentId()), job);
+    }
+
+    @Override
+    public List<FaceTaggingJob> claimDue(String owner, long leaseMs, int limit)
+            throws ExecutionException, InterruptedException {
+        Query due = firestore.collection(COLLECTION)
+                .whereEqualTo("status", FaceTaggingJob.STATUS_PENDING)
+                .whereLessThanOrEqualTo("nextAttemptAt", System.currentTimeMillis())
+                .orderBy("nextAttemptAt")
+                .limit(limit);
+        return firestore.runTransaction(tx -> {
+            long now = System.currentTimeMillis();
+            List<FaceTaggingJob> claimed = new ArrayList<>();
+            for (QueryDocumentSnapshot doc : tx.get(due).get().getDocuments()) {
+                FaceTaggingJob job = doc.toObject(FaceTaggingJob.class);
+                job.setLeaseOwner(owner);
+                job.setNextAttemptAt(now + leaseMs);
+                job.setUpdatedAt(now);
+                tx.update(doc.getReference(), "leaseOwner", owner, "nextAttemptAt", now + leaseMs, "updatedAt", now);
+                claimed.add(job);
+            }
+            return claimed;
+        }).get();
+    }
+
+    @Override
+    public void complete(Collection<String> momentIds) throws ExecutionException, InterruptedException {
+        if (momentIds == null || momentIds.isEmpty()) {
+            return;
+        }
+        WriteBatch batch = firestore.batch();
+        for (String momentId : momentIds) {
+            batch.delete(ref(momentId));
+        }
+        batch.commit().get();
+    }
+
+    @Override
+    public FaceTaggingJob recordFailure(String momentId, String owner, String error, int maxAttempts,
+            IntToLongFunction retryDelayMs) throws ExecutionException, InterruptedException {
+        DocumentReference ref = ref(momentId);
+        return firestore.runTransaction(tx -> {
+            DocumentSnapshot doc = tx.get(ref).get();
+            FaceTaggingJob job = doc.exists() ? doc.toObject(FaceTaggingJob.class) : null;
+            if (job == null || !FaceTaggingJob.STATUS_PENDING.equals(job.getStatus())
+                    || !owner.equals(job.getLeaseOwner())) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            int attempts = job.getAttempts() + 1;
+            job.setAttempts(attempts);
+            job.setLeaseOwner(null);
+            job.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            job.setUpdatedAt(now);
+            if (attempts >= maxAttempts) {
+                job.setStatus(FaceTaggingJob.STATUS_DEAD);
+            } else {
+                job.setNextAttemptAt(now + retryDelayMs.applyAsLong(attempts));
+            }
+            tx.set(ref, job);
+            return job;
+        }).get();
+    }
+
+    private DocumentReference ref(String momentId) {
+        return firestore.collection(COLLECTION).document(momentId);
+    }
+}
@@ -1,25 +1,56 @@
 package com.moments.dao.impl;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.firestore.*;
+import com.moments.dao.LikeAsyncDao;
 import com.moments.dao.LikeDao;
 import com.moments.models.Like;
 import com.moments.models.Moment;
+import com.moments.utils.TtlCache;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static com.moments.utils.FirestoreFutures.toCompletable;
 
 @Repository
-public class LikeDaoImpl implements LikeDao {
+public class LikeDaoImpl implements LikeDao, LikeAsyncDao {
 
     @Autowired
     private Firestore firestore;
 
+    /** Firestore completions hop here, so result mapping never runs on the RPC callback thread. */
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private Executor backgroundExecutor;
+
     private static final String LIKES_COLLECTION = "likes";
     private static final String MOMENTS_COLLECTION = "moments";
+    private static final int GET_ALL_BATCH_SIZE = 300;
+
+    @Value("${moments.count.cache.ttl-ms:10000}")
+    private long countCacheTtlMs;
+
+    @Value("${moments.count.cache.max-entries:10000}")
+    private int countCacheMaxEntries;
+
+    private TtlCache<String, Integer> likeCountCache;
+
+    @PostConstruct
+    void initCountCache() {
+        likeCountCache = new TtlCache<>(countCacheTtlMs, countCacheMaxEntries);
+    }
 
     @Override
     public String saveLike(Like like) throws ExecutionException, InterruptedException {
@@ -29,6 +60,7 @@ public class LikeDaoImpl implements LikeDao {
         
         ApiFuture<WriteResult> future = documentReference.set(like);
         future.get();
+        invalidateLikeCounts(like.getLikedBy());
         
         return like.getLikeId();
     }
@@ -46,6 +78,7 @@ public class LikeDaoImpl implements LikeDao {
             DocumentReference docRef = documents.get(0).getReference();
             ApiFuture<WriteResult> deleteFuture = docRef.delete();
             deleteFuture.get();
+            invalidateLikeCounts(userId);
             return true;
         }
         return false;
@@ -63,8 +96,49 @@ public class LikeDaoImpl implements LikeDao {
         return !documents.isEmpty();
     }
 
+    @Override
+    public Set<String> getLikedMomentIds(String userId, List<String> momentIds) throws ExecutionException, InterruptedException {
+        return getLikedMomentIdsAsync(userId, momentIds).get();
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> getLikedMomentIdsAsync(String userId, List<String> momentIds) {
+        if (userId == null || userId.isEmpty() || momentIds == null || momentIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashSet<>());
+        }
+        // Like documents use the deterministic id userId_momentId (see saveLike), so liked state is a keyed
+        // lookup rather than a scan of each moment's likedBy array.
+        CollectionReference collection = firestore.collection(LIKES_COLLECTION);
+        String prefix = userId + "_";
+        List<ApiFuture<List<DocumentSnapshot>>> futures = new ArrayList<>();
+        for (int i = 0; i < momentIds.size(); i += GET_ALL_BATCH_SIZE) {
+            List<String> batch = momentIds.subList(i, Math.min(i + GET_ALL_BATCH_SIZE, momentIds.size()));
+            DocumentReference[] refs = new DocumentReference[batch.size()];
+            for (int j = 0; j < batch.size(); j++) {
+                refs[j] = collection.document(prefix + batch.get(j));
+            }
+            futures.add(firestore.getAll(refs, FieldMask.of("likedMoment")));
+        }
+        return toCompletable(ApiFutures.allAsList(futures), backgroundExecutor).thenApply(results -> {
+            Set<String> liked = new HashSet<>();
+            for (List<DocumentSnapshot> snapshots : results) {
+                for (DocumentSnapshot snapshot : snapshots) {
+                    if (snapshot.exists()) {
+                        liked.add(snapshot.getId().substring(prefix.length()));
+                    }
+                }
+            }
+            return liked;
+        });
+    }
+
     @Override
     public List<Like> getLikesByUser(String userId, String eventId, int offset, int limit) throws ExecutionException, InterruptedException {
+        return getLikesByUserAsync(userId, eventId, offset, limit).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Like>> getLikesByUserAsync(String userId, String eventId, int offset, int limit) {
         CollectionReference collection = firestore.collection(LIKES_COLLECTION);
         Query query;
         
@@ -79,22 +153,26 @@ public class LikeDaoImpl implements LikeDao {
                              .orderBy("momentCreationTime", Query.Direction.DESCENDING);
         }
         
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        
-        List<Like> likes = new ArrayList<>();
-        int startIndex = Math.min(offset, documents.size());
-        int endIndex = Math.min(startIndex + limit, documents.size());
-        
-        for (int i = startIndex; i < endIndex; i++) {
-            likes.add(documents.get(i).toObject(Like.class));
-        }
-        
-        return likes;
+        return toCompletable(query.get(), backgroundExecutor).thenApply(snapshot -> {
+            List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+            List<Like> likes = new ArrayList<>();
+            int startIndex = Math.min(offset, documents.size());
+            int endIndex = Math.min(startIndex + limit, documents.size());
+
+            for (int i = startIndex; i < endIndex; i++) {
+                likes.add(documents.get(i).toObject(Like.class));
+            }
+            return likes;
+        });
     }
 
     @Override
     public int getTotalLikesByUser(String userId, String eventId) throws ExecutionException, InterruptedException {
+        return getTotalLikesByUserAsync(userId, eventId).get();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getTotalLikesByUserAsync(String userId, String eventId) {
         CollectionReference collection = firestore.collection(LIKES_COLLECTION);
         Query query;
         
@@ -105,8 +183,20 @@ public class LikeDaoImpl implements LikeDao {
             query = collection.whereEqualTo("likedBy", userId);
         }
         
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().size();
+        Query countQuery = query;
+        // Server-side count aggregation: no like documents are downloaded
+        return likeCountCache.getAsync(likeCountCacheKey(userId, eventId),
+                () -> toCompletable(countQuery.count().get(), backgroundExecutor)
+                        .thenApply(snapshot -> (int) snapshot.getCount()));
+    }
+
+    private static String likeCountCacheKey(String userId, String eventId) {
+        return userId + "|" + (eventId == null ? "" : eventId);
+    }
+
+    private void invalidateLikeCounts(String userId) {
+        String prefix = userId + "|";
+        likeCountCache.invalidateIf(key -> key.startsWith(prefix));
     }
 
     @Override
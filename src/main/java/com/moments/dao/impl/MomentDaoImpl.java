@@ -1,18 +1,37 @@
 package com.moments.dao.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
 import com.google.cloud.firestore.CollectionReference;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
 import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.Query;
@@ -20,19 +39,70 @@ import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
 import com.google.cloud.firestore.WriteBatch;
 import com.google.cloud.firestore.WriteResult;
+import com.moments.dao.EventAsyncDao;
+import com.moments.dao.MomentAsyncDao;
+import com.moments.dao.FaceTaggingJobDao;
 import com.moments.dao.MomentDao;
+import com.moments.models.FaceTaggingJob;
+import com.moments.models.FaceTaggingStorageUpdate;
 import com.moments.models.Moment;
 import com.moments.models.MomentStatus;
 import com.moments.models.ReportRequest;
+import com.moments.utils.TtlCache;
+
+import static com.moments.utils.FirestoreFutures.toCompletable;
+
+import jakarta.annotation.PostConstruct;
 
 @Repository
-public class MomentDaoImpl implements MomentDao {
+public class MomentDaoImpl implements MomentDao, MomentAsyncDao {
 
     @Autowired
     private Firestore firestore;
 
+    @Autowired
+    private FaceTaggingJobDao faceTaggingJobDao;
+
+    /** Firestore completions hop here, so result mapping never runs on the RPC callback thread. */
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private Executor backgroundExecutor;
+
+    @Autowired
+    private EventAsyncDao eventAsyncDao;
+
+    private static final Logger logger = LoggerFactory.getLogger(MomentDaoImpl.class);
+
     private static final String COLLECTION_NAME = "moments";
 
+    /** Document references per {@code getAll} RPC when hydrating moments by id. */
+    private static final int GET_ALL_BATCH_SIZE = 100;
+
+    /** Moments per face-tagging write-back batch (the batch holds moment updates only, capped at 500 writes). */
+    private static final int STORAGE_UPDATE_BATCH_SIZE = 500;
+
+    /**
+     * Fields returned by feed queries. {@code likedBy} stays because clients read like counts and likers from it;
+     * {@code reportedBy} is moderation data no feed renders, so it is not downloaded.
+     */
+    private static final String[] FEED_FIELDS = { "momentId", "eventId", "creationTime", "creatorDetails",
+            "creatorId", "creatorRole", "media", "uploadTime", "creationTimeText", "uploadTimeText", "status",
+            "aspectRatio", "taggedUserIds", "likedBy", "memoryUsage", "updated_at", "updatedAt" };
+
+    /** Feed totals for {@code Cursor.total}; a few seconds of staleness is fine for a counter. */
+    @Value("${moments.count.cache.ttl-ms:10000}")
+    private long countCacheTtlMs;
+
+    @Value("${moments.count.cache.max-entries:10000}")
+    private int countCacheMaxEntries;
+
+    private TtlCache<String, Integer> countCache;
+
+    @PostConstruct
+    void initCountCache() {
+        countCache = new TtlCache<>(countCacheTtlMs, countCacheMaxEntries);
+    }
+
     @Override
     public String saveMoment(Moment moment) throws ExecutionException, InterruptedException {
 
@@ -46,18 +116,65 @@ public class MomentDaoImpl implements MomentDao {
 
         ApiFuture<WriteResult> future = documentReference.set(moment);
         future.get();
+        invalidateCounts(moment.getEventId());
 
         return moment.getMomentId();
     }
 
     @Override
     public boolean momentExists(String momentId) throws ExecutionException, InterruptedException {
+        return momentExistsAsync(momentId).get();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> momentExistsAsync(String momentId) {
         if (momentId == null || momentId.isBlank()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         DocumentReference ref = firestore.collection(COLLECTION_NAME).document(momentId);
-        DocumentSnapshot snap = ref.get().get();
-        return snap.exists();
+        return toCompletable(ref.get(), backgroundExecutor).thenApply(DocumentSnapshot::exists);
+    }
+
+    @Override
+    public Set<String> findExistingMomentIds(Collection<String> momentIds)
+            throws ExecutionException, InterruptedException {
+        // Existence only: the mask keeps media, tags and likes out of the response
+        return findMomentIds(momentIds, "momentId", document -> true);
+    }
+
+    @Override
+    public Set<String> findApprovedMomentIds(Collection<String> momentIds)
+            throws ExecutionException, InterruptedException {
+        return findMomentIds(momentIds, "status",
+                document -> MomentStatus.APPROVED.name().equals(document.getString("status")));
+    }
+
+    /** Ids of the existing moments that pass {@code filter}, read with {@code getAll} masked to {@code field}. */
+    private Set<String> findMomentIds(Collection<String> momentIds, String field,
+            Predicate<DocumentSnapshot> filter) throws ExecutionException, InterruptedException {
+        Set<String> existing = new HashSet<>();
+        if (momentIds == null || momentIds.isEmpty()) {
+            return existing;
+        }
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(momentIds));
+        List<ApiFuture<List<DocumentSnapshot>>> futures = new ArrayList<>();
+        for (int i = 0; i < uniqueIds.size(); i += GET_ALL_BATCH_SIZE) {
+            List<String> batch = uniqueIds.subList(i, Math.min(i + GET_ALL_BATCH_SIZE, uniqueIds.size()));
+            DocumentReference[] refs = new DocumentReference[batch.size()];
+            for (int j = 0; j < batch.size(); j++) {
+                refs[j] = collection.document(batch.get(j));
+            }
+            futures.add(firestore.getAll(refs, FieldMask.of(field)));
+        }
+        for (List<DocumentSnapshot> documents : ApiFutures.allAsList(futures).get()) {
+            for (DocumentSnapshot document : documents) {
+                if (document.exists() && filter.test(document)) {
+                    existing.add(document.getId());
+                }
+            }
+        }
+        return existing;
     }
 
     @Override
@@ -73,6 +190,17 @@ public class MomentDaoImpl implements MomentDao {
         }
     }
 
+    @Override
+    public CompletableFuture<Moment> getMomentByIdAsync(String id) {
+        DocumentReference documentReference = firestore.collection(COLLECTION_NAME).document(id);
+        return toCompletable(documentReference.get(), backgroundExecutor).thenApply(document -> {
+            if (!document.exists()) {
+                throw new RuntimeException("Moment not found with ID: " + id);
+            }
+            return document.toObject(Moment.class);
+        });
+    }
+
     @Override
     public List<Moment> getAllMoments() throws ExecutionException, InterruptedException {
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
@@ -93,6 +221,11 @@ public class MomentDaoImpl implements MomentDao {
     
     @Override
     public List<Moment> getAllMoments(String eventId, String creatorRoleFilter) throws ExecutionException, InterruptedException {
+        return getAllMomentsAsync(eventId, creatorRoleFilter).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Moment>> getAllMomentsAsync(String eventId, String creatorRoleFilter) {
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
         Query query = "123457".equals(eventId)?collection.orderBy("creationTime", Query.Direction.ASCENDING):
         collection.orderBy("creationTime", Query.Direction.DESCENDING) ;
@@ -104,22 +237,17 @@ public class MomentDaoImpl implements MomentDao {
             query = query.whereEqualTo("creatorRole", creatorRoleFilter);
         }
         // Fetch all documents matching the query
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        List<Moment> moments = new ArrayList<>();
-        for (int i = 0; i < documents.size(); i++) {
-            moments.add(documents.get(i).toObject(Moment.class));
-        }
-
-        return moments;
+        return toCompletable(query.get(), backgroundExecutor).thenApply(snapshot -> toMoments(snapshot.getDocuments()));
     }
 
     @Override
-    public void deleteMoment(String id) throws ExecutionException, InterruptedException {
+    public void deleteMoment(String id, String eventId) throws ExecutionException, InterruptedException {
         DocumentReference documentReference = firestore.collection(COLLECTION_NAME).document(id);
         ApiFuture<WriteResult> future = documentReference.delete();
         future.get();
+        if (eventId != null) {
+            invalidateCounts(eventId);
+        }
     }
 
     @Override
@@ -131,9 +259,47 @@ public class MomentDaoImpl implements MomentDao {
     @Override
     public List<Moment> getMomentsFeed(String creatorUserId, String eventId, int offset, int limit, String creatorRoleFilter)
             throws ExecutionException, InterruptedException {
+        return getMomentsFeedAsync(creatorUserId, eventId, offset, limit, creatorRoleFilter).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Moment>> getMomentsFeedAsync(String creatorUserId, String eventId, int offset,
+            int limit, String creatorRoleFilter) {
+        // Offset paging is kept for clients that do not send a keyset cursor; Firestore still bills skipped
+        // documents but they are no longer downloaded and deserialized here.
+        Query query = buildFeedQuery(creatorUserId, eventId, creatorRoleFilter)
+                .offset(Math.max(offset, 0))
+                .limit(limit);
+        return fetchMoments(query);
+    }
+
+    @Override
+    public List<Moment> getMomentsFeedAfter(String creatorUserId, String eventId, Long lastCreatedTime,
+            String lastMomentId, int limit, String creatorRoleFilter) throws ExecutionException, InterruptedException {
+        return getMomentsFeedAfterAsync(creatorUserId, eventId, lastCreatedTime, lastMomentId, limit,
+                creatorRoleFilter).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Moment>> getMomentsFeedAfterAsync(String creatorUserId, String eventId,
+            Long lastCreatedTime, String lastMomentId, int limit, String creatorRoleFilter) {
+        Query query = buildFeedQuery(creatorUserId, eventId, creatorRoleFilter);
+        if (lastCreatedTime != null && lastMomentId != null && !lastMomentId.isEmpty()) {
+            query = query.startAfter(lastCreatedTime, lastMomentId);
+        }
+        return fetchMoments(query.limit(limit));
+    }
+
+    /**
+     * Approved feed for an event ordered by {@code creationTime}, with the document id as tiebreaker so that
+     * keyset cursors are stable when several moments share a timestamp (bulk uploads, Drive imports).
+     */
+    private Query buildFeedQuery(String creatorUserId, String eventId, String creatorRoleFilter) {
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        Query query = "123457".equals(eventId)?collection.orderBy("creationTime", Query.Direction.ASCENDING):
-        collection.orderBy("creationTime", Query.Direction.DESCENDING) ;
+        Query.Direction direction = feedDirection(eventId);
+        Query query = collection.select(FEED_FIELDS)
+                .orderBy("creationTime", direction)
+                .orderBy(FieldPath.documentId(), direction);
 
         query = query.whereEqualTo("status", "APPROVED");
         if (eventId != null && !eventId.isEmpty()) {
@@ -144,24 +310,27 @@ public class MomentDaoImpl implements MomentDao {
         if (creatorUserId != null && !creatorUserId.isEmpty()) {
             query = query.whereEqualTo("creatorId", creatorUserId);
         }
-        
+
         // Apply creatorRole filter if provided
         if (creatorRoleFilter != null && !creatorRoleFilter.isEmpty()) {
             query = query.whereEqualTo("creatorRole", creatorRoleFilter);
         }
+        return query;
+    }
 
-        // Fetch all documents matching the query
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+    private static Query.Direction feedDirection(String eventId) {
+        return "123457".equals(eventId) ? Query.Direction.ASCENDING : Query.Direction.DESCENDING;
+    }
 
-        // Apply pagination (offset and limit)
-        List<Moment> moments = new ArrayList<>();
-        int startIndex = Math.min(offset, documents.size());
-        int endIndex = Math.min(startIndex + limit, documents.size());
-        for (int i = startIndex; i < endIndex; i++) {
-            moments.add(documents.get(i).toObject(Moment.class));
-        }
+    private CompletableFuture<List<Moment>> fetchMoments(Query query) {
+        return toCompletable(query.get(), backgroundExecutor).thenApply(snapshot -> toMoments(snapshot.getDocuments()));
+    }
 
+    private static List<Moment> toMoments(List<QueryDocumentSnapshot> documents) {
+        List<Moment> moments = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot document : documents) {
+            moments.add(document.toObject(Moment.class));
+        }
         return moments;
     }
 
@@ -174,44 +343,36 @@ public class MomentDaoImpl implements MomentDao {
     @Override
     public List<Moment> getMomentsFeedByTaggedUser(String taggedUserId, String eventId, int offset, int limit, String creatorRoleFilter)
             throws ExecutionException, InterruptedException {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        Query query = "123457".equals(eventId)?collection.orderBy("creationTime", Query.Direction.ASCENDING):
-        collection.orderBy("creationTime", Query.Direction.DESCENDING) ;
-
-        query = query.whereEqualTo("status", "APPROVED");
-        if (eventId != null && !eventId.isEmpty()) {
-            query = query.whereEqualTo("eventId", eventId);
-        }
-        
-        // Apply creatorRole filter if provided
-        if (creatorRoleFilter != null && !creatorRoleFilter.isEmpty()) {
-            query = query.whereEqualTo("creatorRole", creatorRoleFilter);
-        }
-
-        // Fetch all documents matching the query
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        // Filter by taggedUserId and collect all matching moments
-        List<Moment> allMatchingMoments = new ArrayList<>();
-        for (QueryDocumentSnapshot document : documents) {
-            Moment moment = document.toObject(Moment.class);
-            // Check if taggedUserId is present in the moment's taggedUserIds list
-            if (moment.getTaggedUserIds() != null && moment.getTaggedUserIds().contains(taggedUserId)) {
-                allMatchingMoments.add(moment);
-            }
-        }
+        return getMomentsFeedByTaggedUserAsync(taggedUserId, eventId, offset, limit, creatorRoleFilter).get();
+    }
 
-        // Apply pagination to the filtered results
-        List<Moment> moments = new ArrayList<>();
-        int startIndex = Math.min(offset, allMatchingMoments.size());
-        int endIndex = Math.min(startIndex + limit, allMatchingMoments.size());
+    @Override
+    public CompletableFuture<List<Moment>> getMomentsFeedByTaggedUserAsync(String taggedUserId, String eventId,
+            int offset, int limit, String creatorRoleFilter) {
+        // array-contains on taggedUserIds is served from the index, so only the requested page is read
+        Query query = buildFeedQuery(null, eventId, creatorRoleFilter)
+                .whereArrayContains("taggedUserIds", taggedUserId)
+                .offset(Math.max(offset, 0))
+                .limit(limit);
+        return fetchMoments(query);
+    }
 
-        for (int i = startIndex; i < endIndex; i++) {
-            moments.add(allMatchingMoments.get(i));
-        }
+    @Override
+    public List<Moment> getMomentsFeedByTaggedUserAfter(String taggedUserId, String eventId, Long lastCreatedTime,
+            String lastMomentId, int limit, String creatorRoleFilter) throws ExecutionException, InterruptedException {
+        return getMomentsFeedByTaggedUserAfterAsync(taggedUserId, eventId, lastCreatedTime, lastMomentId, limit,
+                creatorRoleFilter).get();
+    }
 
-        return moments;
+    @Override
+    public CompletableFuture<List<Moment>> getMomentsFeedByTaggedUserAfterAsync(String taggedUserId, String eventId,
+            Long lastCreatedTime, String lastMomentId, int limit, String creatorRoleFilter) {
+        Query query = buildFeedQuery(null, eventId, creatorRoleFilter)
+                .whereArrayContains("taggedUserIds", taggedUserId);
+        if (lastCreatedTime != null && lastMomentId != null && !lastMomentId.isEmpty()) {
+            query = query.startAfter(lastCreatedTime, lastMomentId);
+        }
+        return fetchMoments(query.limit(limit));
     }
 
     @Override
@@ -221,26 +382,34 @@ public class MomentDaoImpl implements MomentDao {
     
     @Override
     public int getTotalCount(String creatorUserId, String eventId, String creatorRoleFilter) throws ExecutionException, InterruptedException {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        Query query = collection;
+        return getTotalCountAsync(creatorUserId, eventId, creatorRoleFilter).get();
+    }
 
-        if (eventId != null && !eventId.isEmpty()) {
-            query = query.whereEqualTo("eventId", eventId);
-        }
+    @Override
+    public CompletableFuture<Integer> getTotalCountAsync(String creatorUserId, String eventId,
+            String creatorRoleFilter) {
+        String key = countCacheKey(eventId, "all", creatorUserId, creatorRoleFilter);
+        return countCache.getAsync(key, () -> {
+            CollectionReference collection = firestore.collection(COLLECTION_NAME);
+            Query query = collection;
 
-        // Apply filter if creatorUserId is provided
-        if (creatorUserId != null && !creatorUserId.isEmpty()) {
-            query = query.whereEqualTo("creatorId", creatorUserId);
-        }
-        
-        // Apply creatorRole filter if provided
-        if (creatorRoleFilter != null && !creatorRoleFilter.isEmpty()) {
-            query = query.whereEqualTo("creatorRole", creatorRoleFilter);
-        }
-        
-        // Count all matching documents
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().size();
+            if (eventId != null && !eventId.isEmpty()) {
+                query = query.whereEqualTo("eventId", eventId);
+            }
+
+            // Apply filter if creatorUserId is provided
+            if (creatorUserId != null && !creatorUserId.isEmpty()) {
+                query = query.whereEqualTo("creatorId", creatorUserId);
+            }
+
+            // Apply creatorRole filter if provided
+            if (creatorRoleFilter != null && !creatorRoleFilter.isEmpty()) {
+                query = query.whereEqualTo("creatorRole", creatorRoleFilter);
+            }
+
+            // Server-side count aggregation: no documents are downloaded
+            return count(query);
+        });
     }
 
     @Override
@@ -252,33 +421,27 @@ public class MomentDaoImpl implements MomentDao {
     @Override
     public int getTotalCountByTaggedUser(String taggedUserId, String eventId, String creatorRoleFilter)
             throws ExecutionException, InterruptedException {
+        return getTotalCountByTaggedUserAsync(taggedUserId, eventId, creatorRoleFilter).get();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getTotalCountByTaggedUserAsync(String taggedUserId, String eventId,
+            String creatorRoleFilter) {
+        // Not cached: tags are written by the face-tagging service right after a selfie upload, and a stale
+        // zero here would make the client ask the guest to re-upload (MomentsResponse.isReUploadRequired).
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        Query query = collection;
+        Query query = collection.whereArrayContains("taggedUserIds", taggedUserId);
 
         if (eventId != null && !eventId.isEmpty()) {
             query = query.whereEqualTo("eventId", eventId);
         }
-        
+
         // Apply creatorRole filter if provided
         if (creatorRoleFilter != null && !creatorRoleFilter.isEmpty()) {
             query = query.whereEqualTo("creatorRole", creatorRoleFilter);
         }
 
-        // Fetch all documents matching the query
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        // Filter by taggedUserId and count
-        int count = 0;
-        for (QueryDocumentSnapshot document : documents) {
-            Moment moment = document.toObject(Moment.class);
-            // Check if taggedUserId is present in the moment's taggedUserIds list
-            if (moment.getTaggedUserIds() != null && moment.getTaggedUserIds().contains(taggedUserId)) {
-                count++;
-            }
-        }
-
-        return count;
+        return count(query);
     }
 
     @Override
@@ -315,53 +478,66 @@ public class MomentDaoImpl implements MomentDao {
         updates.put("status", status);
         updates.put("updated_at", FieldValue.serverTimestamp());
         docRef.update(updates).get();
+        invalidateCounts(document.getString("eventId"));
         return momentId;
     }
 
     @Override
     public List<Moment> getMomentsByIds(List<String> momentIds) throws ExecutionException, InterruptedException {
+        return getMomentsByIdsAsync(momentIds).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Moment>> getMomentsByIdsAsync(List<String> momentIds) {
         if (momentIds == null || momentIds.isEmpty()) {
-            return new ArrayList<>();
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
 
-        // Create a map to store moments by their momentId for quick lookup
-        Map<String, Moment> momentMap = new HashMap<>();
+        // Moment ids are document ids, so fetch by reference with getAll instead of whereIn queries (10 values
+        // each). All chunks are issued before waiting on any of them.
         CollectionReference collection = firestore.collection(COLLECTION_NAME);
-
-        // Firestore doesn't support "IN" queries with more than 10 values
-        // So we need to batch the requests
-        int batchSize = 10;
-        for (int i = 0; i < momentIds.size(); i += batchSize) {
-            int endIndex = Math.min(i + batchSize, momentIds.size());
-            List<String> batch = momentIds.subList(i, endIndex);
-
-            // Use "in" query for each batch
-            Query query = collection.whereIn("momentId", batch);
-            ApiFuture<QuerySnapshot> future = query.get();
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-            for (QueryDocumentSnapshot document : documents) {
-                Moment moment = document.toObject(Moment.class);
-                if (moment != null) {
-                    momentMap.put(moment.getMomentId(), moment);
-                }
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(momentIds));
+        List<ApiFuture<List<DocumentSnapshot>>> futures = new ArrayList<>();
+        for (int i = 0; i < uniqueIds.size(); i += GET_ALL_BATCH_SIZE) {
+            List<String> batch = uniqueIds.subList(i, Math.min(i + GET_ALL_BATCH_SIZE, uniqueIds.size()));
+            DocumentReference[] refs = new DocumentReference[batch.size()];
+            for (int j = 0; j < batch.size(); j++) {
+                refs[j] = collection.document(batch.get(j));
             }
+            futures.add(firestore.getAll(refs));
         }
 
-        // Return moments in the same order as the requested momentIds
-        List<Moment> orderedMoments = new ArrayList<>();
-        for (String momentId : momentIds) {
-            Moment moment = momentMap.get(momentId);
-            if (moment != null) {
-                orderedMoments.add(moment);
+        return toCompletable(ApiFutures.allAsList(futures), backgroundExecutor).thenApply(results -> {
+            // Create a map to store moments by their momentId for quick lookup
+            Map<String, Moment> momentMap = new HashMap<>();
+            for (List<DocumentSnapshot> documents : results) {
+                for (DocumentSnapshot document : documents) {
+                    if (document.exists()) {
+                        momentMap.put(document.getId(), document.toObject(Moment.class));
+                    }
+                }
             }
-        }
 
-        return orderedMoments;
+            // Return moments in the same order as the requested momentIds
+            List<Moment> orderedMoments = new ArrayList<>();
+            for (String momentId : momentIds) {
+                Moment moment = momentMap.get(momentId);
+                if (moment != null) {
+                    orderedMoments.add(moment);
+                }
+            }
+            return orderedMoments;
+        });
     }
 
     @Override
     public List<String> saveMomentsBatch(List<Moment> moments) throws ExecutionException, InterruptedException {
+        return saveMomentsBatch(moments, Collections.emptyList());
+    }
+
+    @Override
+    public List<String> saveMomentsBatch(List<Moment> moments, List<FaceTaggingJob> faceTaggingJobs)
+            throws ExecutionException, InterruptedException {
         if (moments == null || moments.isEmpty()) {
             return new ArrayList<>();
         }
@@ -380,10 +556,16 @@ public class MomentDaoImpl implements MomentDao {
             batchWrite.set(docRef, moment);
             allIds.add(moment.getMomentId());
         }
+        for (FaceTaggingJob job : faceTaggingJobs) {
+            faceTaggingJobDao.stage(batchWrite, job);
+        }
 
         // Commit the batch
         ApiFuture<List<WriteResult>> future = batchWrite.commit();
         future.get(); // This will throw an exception if any operation in the batch fails
+        for (Moment moment : moments) {
+            invalidateCounts(moment.getEventId());
+        }
 
         return allIds;
     }
@@ -391,69 +573,127 @@ public class MomentDaoImpl implements MomentDao {
     @Override
     public List<Moment> getMomentsFeedByCreatorIds(List<String> creatorIds, String eventId, int offset, int limit)
             throws ExecutionException, InterruptedException {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        
-        // Firestore "in" queries are limited to 10 items per query
-        List<Moment> allMoments = new ArrayList<>();
-        int batchSize = 10;
-        
-        for (int i = 0; i < creatorIds.size(); i += batchSize) {
-            int endIndex = Math.min(i + batchSize, creatorIds.size());
-            List<String> batch = creatorIds.subList(i, endIndex);
-            
-            // Build query for this batch
-            Query batchQuery = collection.whereEqualTo("status", "APPROVED");
-            if (eventId != null && !eventId.isEmpty()) {
-                batchQuery = batchQuery.whereEqualTo("eventId", eventId);
+        return getMomentsFeedByCreatorIdsAsync(creatorIds, eventId, offset, limit).get();
+    }
+
+    @Override
+    public CompletableFuture<List<Moment>> getMomentsFeedByCreatorIdsAsync(List<String> creatorIds, String eventId,
+            int offset, int limit) {
+        // Firestore "in" queries are limited to 10 items per query. Each chunk only needs its newest
+        // offset+limit moments, and all chunks are queried concurrently before the results are merged.
+        List<ApiFuture<QuerySnapshot>> futures = new ArrayList<>();
+        for (Query chunkQuery : creatorIdChunkQueries(creatorIds, eventId)) {
+            futures.add(chunkQuery.select(FEED_FIELDS)
+                    .orderBy("creationTime", Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                    .limit(offset + limit)
+                    .get());
+        }
+
+        return toCompletable(ApiFutures.allAsList(futures), backgroundExecutor).thenApply(snapshots -> {
+            List<List<QueryDocumentSnapshot>> chunks = new ArrayList<>(snapshots.size());
+            for (QuerySnapshot snapshot : snapshots) {
+                chunks.add(snapshot.getDocuments());
             }
-            batchQuery = batchQuery.whereIn("creatorId", batch);
-            
-            ApiFuture<QuerySnapshot> future = batchQuery.get();
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            
-            for (QueryDocumentSnapshot document : documents) {
-                allMoments.add(document.toObject(Moment.class));
+            return mergeNewestFirst(chunks, offset, limit);
+        });
+    }
+
+    /**
+     * k-way merge of per-chunk results that are each sorted newest first; only the documents that land on the
+     * requested page are deserialized.
+     */
+    private static List<Moment> mergeNewestFirst(List<List<QueryDocumentSnapshot>> chunks, int offset, int limit) {
+        Comparator<int[]> newestFirst = (a, b) -> {
+            QueryDocumentSnapshot da = chunks.get(a[0]).get(a[1]);
+            QueryDocumentSnapshot db = chunks.get(b[0]).get(b[1]);
+            int byTime = Long.compare(creationTimeOf(db), creationTimeOf(da));
+            return byTime != 0 ? byTime : db.getId().compareTo(da.getId());
+        };
+        // Heap entries are {chunk index, position within chunk}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, chunks.size()), newestFirst);
+        for (int c = 0; c < chunks.size(); c++) {
+            if (!chunks.get(c).isEmpty()) {
+                heap.add(new int[] { c, 0 });
             }
         }
-        
-        // Sort all moments by creationTime descending (since batches might not be in order)
-        allMoments.sort((m1, m2) -> Long.compare(m2.getCreationTime(), m1.getCreationTime()));
-        
-        // Apply pagination
-        List<Moment> moments = new ArrayList<>();
-        int startIndex = Math.min(offset, allMoments.size());
-        int endIndex = Math.min(startIndex + limit, allMoments.size());
-        for (int i = startIndex; i < endIndex; i++) {
-            moments.add(allMoments.get(i));
-        }
 
+        List<Moment> moments = new ArrayList<>(limit);
+        int skipped = 0;
+        while (!heap.isEmpty() && moments.size() < limit) {
+            int[] head = heap.poll();
+            List<QueryDocumentSnapshot> chunk = chunks.get(head[0]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                moments.add(chunk.get(head[1]).toObject(Moment.class));
+            }
+            if (head[1] + 1 < chunk.size()) {
+                heap.add(new int[] { head[0], head[1] + 1 });
+            }
+        }
         return moments;
     }
 
-    @Override
-    public int getTotalCountByCreatorIds(List<String> creatorIds, String eventId) throws ExecutionException, InterruptedException {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        Query query = collection;
+    private static long creationTimeOf(QueryDocumentSnapshot document) {
+        Long creationTime = document.getLong("creationTime");
+        return creationTime == null ? 0L : creationTime;
+    }
 
-        query = query.whereEqualTo("status", "APPROVED");
+    /** Approved moments of the event, one query per 10 creator ids (Firestore "in" limit). */
+    private List<Query> creatorIdChunkQueries(List<String> creatorIds, String eventId) {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        Query query = collection.whereEqualTo("status", "APPROVED");
         if (eventId != null && !eventId.isEmpty()) {
             query = query.whereEqualTo("eventId", eventId);
         }
 
-        // Firestore "in" queries are limited to 10 items per query
-        int totalCount = 0;
+        List<Query> chunkQueries = new ArrayList<>();
         int batchSize = 10;
-        
         for (int i = 0; i < creatorIds.size(); i += batchSize) {
             int endIndex = Math.min(i + batchSize, creatorIds.size());
-            List<String> batch = creatorIds.subList(i, endIndex);
-            
-            Query batchQuery = query.whereIn("creatorId", batch);
-            ApiFuture<QuerySnapshot> future = batchQuery.get();
-            totalCount += future.get().size();
+            chunkQueries.add(query.whereIn("creatorId", new ArrayList<>(creatorIds.subList(i, endIndex))));
         }
-        
-        return totalCount;
+        return chunkQueries;
+    }
+
+    @Override
+    public int getTotalCountByCreatorIds(List<String> creatorIds, String eventId) throws ExecutionException, InterruptedException {
+        return getTotalCountByCreatorIdsAsync(creatorIds, eventId).get();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getTotalCountByCreatorIdsAsync(List<String> creatorIds, String eventId) {
+        String key = countCacheKey(eventId, "creators", String.join(",", creatorIds), null);
+        return countCache.getAsync(key, () -> {
+            // Issue every chunk's count aggregation before waiting on any of them
+            List<ApiFuture<AggregateQuerySnapshot>> futures = new ArrayList<>();
+            for (Query chunkQuery : creatorIdChunkQueries(creatorIds, eventId)) {
+                futures.add(chunkQuery.count().get());
+            }
+            return toCompletable(ApiFutures.allAsList(futures), backgroundExecutor).thenApply(snapshots -> {
+                int totalCount = 0;
+                for (AggregateQuerySnapshot snapshot : snapshots) {
+                    totalCount += (int) snapshot.getCount();
+                }
+                return totalCount;
+            });
+        });
+    }
+
+    private CompletableFuture<Integer> count(Query query) {
+        return toCompletable(query.count().get(), backgroundExecutor).thenApply(snapshot -> (int) snapshot.getCount());
+    }
+
+    private static String countCacheKey(String eventId, String kind, String filter, String creatorRoleFilter) {
+        return (eventId == null ? "" : eventId) + "|" + kind + "|" + (filter == null ? "" : filter) + "|"
+                + (creatorRoleFilter == null ? "" : creatorRoleFilter);
+    }
+
+    /** Drops cached totals for an event after a write so the uploader sees their own moment counted. */
+    private void invalidateCounts(String eventId) {
+        String prefix = (eventId == null ? "" : eventId) + "|";
+        countCache.invalidateIf(key -> key.startsWith(prefix));
     }
 
     @Override
@@ -477,6 +717,16 @@ public class MomentDaoImpl implements MomentDao {
         if (!document.exists()) {
             throw new RuntimeException("Moment not found with ID: " + momentId);
         }
+        Map<String, Object> updates = faceTaggingStorageFields(feedUrl, thumbnailUrl, optimisedSizeBytes,
+                thumbnailSizeBytes);
+        if (updates.isEmpty()) {
+            return;
+        }
+        docRef.update(updates).get();
+    }
+
+    private static Map<String, Object> faceTaggingStorageFields(String feedUrl, String thumbnailUrl,
+            Long optimisedSizeBytes, Long thumbnailSizeBytes) {
         Map<String, Object> updates = new HashMap<>();
         if (feedUrl != null) {
             updates.put("media.feedUrl", feedUrl);
@@ -490,10 +740,104 @@ public class MomentDaoImpl implements MomentDao {
         if (thumbnailSizeBytes != null) {
             updates.put("memoryUsage.thumbnailSizeBytes", thumbnailSizeBytes);
         }
-        if (updates.isEmpty()) {
-            return;
+        return updates;
+    }
+
+    @Override
+    public int applyFaceTaggingStorageUpdates(List<FaceTaggingStorageUpdate> updates)
+            throws ExecutionException, InterruptedException {
+        if (updates == null || updates.isEmpty()) {
+            return 0;
         }
-        docRef.update(updates).get();
+        // Last result wins if the service reports a moment twice
+        Map<String, FaceTaggingStorageUpdate> byId = new LinkedHashMap<>();
+        for (FaceTaggingStorageUpdate update : updates) {
+            if (update.getMomentId() != null && !update.getMomentId().isBlank()) {
+                byId.put(update.getMomentId(), update);
+            }
+        }
+        List<String> ids = new ArrayList<>(byId.keySet());
+        int updated = 0;
+        for (int i = 0; i < ids.size(); i += STORAGE_UPDATE_BATCH_SIZE) {
+            updated += applyFaceTaggingStorageChunk(ids.subList(i, Math.min(i + STORAGE_UPDATE_BATCH_SIZE,
+                    ids.size())), byId);
+        }
+        return updated;
+    }
+
+    private int applyFaceTaggingStorageChunk(List<String> ids, Map<String, FaceTaggingStorageUpdate> byId)
+            throws ExecutionException, InterruptedException {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        DocumentReference[] refs = new DocumentReference[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            refs[i] = collection.document(ids.get(i));
+        }
+        // Only the fields the deltas need; a full moment is far larger
+        List<DocumentSnapshot> snapshots = firestore.getAll(refs, FieldMask.of("eventId",
+                "memoryUsage.optimisedSizeBytes", "memoryUsage.thumbnailSizeBytes")).get();
+
+        WriteBatch batch = firestore.batch();
+        // eventId -> {optimised, thumbnail} deltas, so each event document is written once
+        Map<String, long[]> eventDeltas = new LinkedHashMap<>();
+        int updated = 0;
+        for (DocumentSnapshot snapshot : snapshots) {
+            if (!snapshot.exists()) {
+                continue;
+            }
+            FaceTaggingStorageUpdate update = byId.get(snapshot.getId());
+            Map<String, Object> fields = faceTaggingStorageFields(update.getFeedUrl(), update.getThumbnailUrl(),
+                    update.getOptimisedSizeBytes(), update.getThumbnailSizeBytes());
+            if (fields.isEmpty()) {
+                continue;
+            }
+            batch.update(snapshot.getReference(), fields);
+            updated++;
+
+            String eventId = snapshot.getString("eventId");
+            if (eventId == null || eventId.isBlank()) {
+                continue;
+            }
+            long oldOpt = nz(snapshot.getLong("memoryUsage.optimisedSizeBytes"));
+            long oldTh = nz(snapshot.getLong("memoryUsage.thumbnailSizeBytes"));
+            long[] deltas = eventDeltas.computeIfAbsent(eventId, k -> new long[2]);
+            if (update.getOptimisedSizeBytes() != null) {
+                deltas[0] += update.getOptimisedSizeBytes() - oldOpt;
+            }
+            if (update.getThumbnailSizeBytes() != null) {
+                deltas[1] += update.getThumbnailSizeBytes() - oldTh;
+            }
+        }
+        if (updated == 0) {
+            return 0;
+        }
+        batch.commit().get();
+        applyEventStorageDeltas(eventDeltas);
+        return updated;
+    }
+
+    /**
+     * Event totals are written after, and apart from, the moment batch: one missing or failing event document must
+     * not fail the moments' own fields. A lost increment only skews the event total, so it is logged, not thrown.
+     */
+    private void applyEventStorageDeltas(Map<String, long[]> eventDeltas) throws InterruptedException {
+        Map<String, CompletableFuture<Void>> writes = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : eventDeltas.entrySet()) {
+            writes.put(entry.getKey(), eventAsyncDao.adjustAggregatedStorageAsync(entry.getKey(), 0L,
+                    entry.getValue()[0], entry.getValue()[1]));
+        }
+        for (Map.Entry<String, CompletableFuture<Void>> write : writes.entrySet()) {
+            try {
+                write.getValue().get();
+            } catch (ExecutionException e) {
+                long[] d = eventDeltas.get(write.getKey());
+                logger.warn("Could not add face-tagging storage (optimised {}, thumbnail {}) to event {}: {}", d[0],
+                        d[1], write.getKey(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+    }
+
+    private static long nz(Long v) {
+        return v == null ? 0L : v;
     }
 
     @Override
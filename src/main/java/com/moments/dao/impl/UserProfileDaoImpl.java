@@ -2,24 +2,35 @@ package com.moments.dao.impl;
 
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
+import com.moments.dao.UserProfileAsyncDao;
 import com.moments.dao.UserProfileDao;
 import com.moments.models.UserProfile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.moments.utils.FirestoreFutures.toCompletable;
 
 @Repository
-public class UserProfileDaoImpl implements UserProfileDao {
+public class UserProfileDaoImpl implements UserProfileDao, UserProfileAsyncDao {
 
     private static final String COLLECTION_NAME = "UserProfile";
     private final Firestore db;
+    /** Firestore completions hop here, so result mapping never runs on the RPC callback thread. */
+    private final Executor backgroundExecutor;
+    private final ReentrantLock nextUserIdLock = new ReentrantLock();
 
     @Autowired
-    public UserProfileDaoImpl(Firestore db) {
+    public UserProfileDaoImpl(Firestore db, @Qualifier("backgroundExecutor") Executor backgroundExecutor) {
         this.db = db;
+        this.backgroundExecutor = backgroundExecutor;
     }
 
     @Override
@@ -31,7 +42,17 @@ public class UserProfileDaoImpl implements UserProfileDao {
         result.get();// Wait for the operation to complete
        return userId;
     }
-    private synchronized Long getNextUserId() throws ExecutionException, InterruptedException {
+    // A lock rather than synchronized: the wait on the transaction would pin a virtual thread to its carrier
+    private Long getNextUserId() throws ExecutionException, InterruptedException {
+        nextUserIdLock.lock();
+        try {
+            return runNextUserIdTransaction();
+        } finally {
+            nextUserIdLock.unlock();
+        }
+    }
+
+    private Long runNextUserIdTransaction() throws ExecutionException, InterruptedException {
         DocumentReference counterDocRef = db.collection("Counters").document("UserProfileCounter");
 
         // Run a transaction to increment the counter atomically
@@ -100,6 +121,37 @@ public class UserProfileDaoImpl implements UserProfileDao {
         return userProfiles;
     }
 
+    @Override
+    public CompletableFuture<UserProfile> getUserProfileAsync(String userId) {
+        DocumentReference docRef = db.collection(COLLECTION_NAME).document(userId);
+        return toCompletable(docRef.get(), backgroundExecutor)
+                .thenApply(document -> document.exists() ? document.toObject(UserProfile.class) : null);
+    }
+
+    @Override
+    public CompletableFuture<List<UserProfile>> getUserProfilesAsync(List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        List<DocumentReference> docRefs = new ArrayList<>();
+        for (String userId : userIds) {
+            docRefs.add(db.collection(COLLECTION_NAME).document(userId));
+        }
+        ApiFuture<List<DocumentSnapshot>> documentsFuture = db.getAll(docRefs.toArray(new DocumentReference[0]));
+        return toCompletable(documentsFuture, backgroundExecutor).thenApply(documents -> {
+            List<UserProfile> userProfiles = new ArrayList<>();
+            for (DocumentSnapshot document : documents) {
+                if (document.exists()) {
+                    UserProfile userProfile = document.toObject(UserProfile.class);
+                    if (userProfile != null) {
+                        userProfiles.add(userProfile);
+                    }
+                }
+            }
+            return userProfiles;
+        });
+    }
+
 
     @Override
     public void updateUserProfile(UserProfile userProfile) throws ExecutionException, InterruptedException {
@@ -5,6 +5,11 @@ public class Cursor {
     private int offset;
     private int limit;
     private Long lastCreatedTime;
+    /**
+     * Id of the last moment on the previous page. Together with {@code lastCreatedTime} this is the keyset
+     * position for the next page; older clients that omit it fall back to {@code offset} paging.
+     */
+    private String lastMomentId;
     private boolean isLastPage;
 
     public Cursor(int total, int offset, int limit, Long lastCreatedTime, boolean isLastPage) {
@@ -47,6 +52,14 @@ public class Cursor {
         this.lastCreatedTime = lastCreatedTime;
     }
 
+    public String getLastMomentId() {
+        return lastMomentId;
+    }
+
+    public void setLastMomentId(String lastMomentId) {
+        this.lastMomentId = lastMomentId;
+    }
+
     public boolean isLastPage() {
         return isLastPage;
     }
@@ -0,0 +1,27 @@
+package com.moments.models;
+
+/**
+ * Per-event totals for uploads that matched an already-stored image (same SHA-256) and were linked to the
+ * existing moment instead of being stored and face-tagged again.
+ */
+public class DedupSavings {
+
+    private Long duplicatesSkipped;
+    private Long bytesSaved;
+
+    public Long getDuplicatesSkipped() {
+        return duplicatesSkipped;
+    }
+
+    public void setDuplicatesSkipped(Long duplicatesSkipped) {
+        this.duplicatesSkipped = duplicatesSkipped;
+    }
+
+    public Long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public void setBytesSaved(Long bytesSaved) {
+        this.bytesSaved = bytesSaved;
+    }
+}
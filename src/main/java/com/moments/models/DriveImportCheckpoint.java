@@ -0,0 +1,116 @@
+package com.moments.models;
+
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.annotation.Exclude;
+
+/**
+ * Resume state of a Drive import, one document per {@link UploadRecord} (same id). Files are numbered in the order
+ * the folder walk found them; the listing snapshot itself is stored in chunks under the checkpoint document.
+ */
+public class DriveImportCheckpoint {
+
+    /** Same as the upload record id; not written as a field on the document. */
+    @Exclude
+    private String uploadRecordId;
+
+    /** The event and link the snapshot was taken for; a checkpoint for anything else is ignored. */
+    private String eventId;
+    private String driveLink;
+
+    /** True once the whole folder walk is in the snapshot; only then can a resume skip listing. */
+    private boolean listingComplete;
+
+    /** The walk stopped at the file cap. */
+    private boolean listingTruncated;
+
+    private int fileCount;
+    private int listingChunkCount;
+
+    /** {@link java.util.BitSet#toByteArray()} of the file numbers whose moments are saved. */
+    private Blob completed;
+
+    /** Every file up to and including this number is saved; -1 if none. */
+    private int lastProcessedIndex = -1;
+
+    private Long updatedAt;
+
+    public String getUploadRecordId() {
+        return uploadRecordId;
+    }
+
+    public void setUploadRecordId(String uploadRecordId) {
+        this.uploadRecordId = uploadRecordId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getDriveLink() {
+        return driveLink;
+    }
+
+    public void setDriveLink(String driveLink) {
+        this.driveLink = driveLink;
+    }
+
+    public boolean isListingComplete() {
+        return listingComplete;
+    }
+
+    public void setListingComplete(boolean listingComplete) {
+        this.listingComplete = listingComplete;
+    }
+
+    public boolean isListingTruncated() {
+        return listingTruncated;
+    }
+
+    public void setListingTruncated(boolean listingTruncated) {
+        this.listingTruncated = listingTruncated;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public void setFileCount(int fileCount) {
+        this.fileCount = fileCount;
+    }
+
+    public int getListingChunkCount() {
+        return listingChunkCount;
+    }
+
+    public void setListingChunkCount(int listingChunkCount) {
+        this.listingChunkCount = listingChunkCount;
+    }
+
+    public Blob getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Blob completed) {
+        this.completed = completed;
+    }
+
+    public int getLastProcessedIndex() {
+        return lastProcessedIndex;
+    }
+
+    public void setLastProcessedIndex(int lastProcessedIndex) {
+        this.lastProcessedIndex = lastProcessedIndex;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
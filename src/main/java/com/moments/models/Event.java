@@ -33,6 +33,9 @@ public class Event {
     /** Cumulative bytes for all moments in this event (maintained on create/delete/face-tagging updates). */
     private MomentMemoryUsage aggregatedStorage;
 
+    /** Uploads linked to an existing moment by content hash instead of being stored again. */
+    private DedupSavings dedupSavings;
+
     /**
      * Optional millis from client; applied to {@link #startTime} before persist and not stored in Firestore.
      */
@@ -209,4 +212,12 @@ public class Event {
         this.endTimeEpoch = endTimeEpoch;
     }
 
+
+    public DedupSavings getDedupSavings() {
+        return dedupSavings;
+    }
+
+    public void setDedupSavings(DedupSavings dedupSavings) {
+        this.dedupSavings = dedupSavings;
+    }
 }
@@ -8,6 +8,9 @@ public class EventStorageSummary {
     private long totalOptimisedSizeBytes;
     private long totalThumbnailSizeBytes;
     private int momentCount;
+    /** Uploads that matched an image already in the event and were not stored again. */
+    private long duplicatesSkipped;
+    private long dedupBytesSaved;
 
     public EventStorageSummary() {
     }
@@ -78,4 +81,20 @@ public class EventStorageSummary {
     public void setMomentCount(int momentCount) {
         this.momentCount = momentCount;
     }
+
+    public long getDuplicatesSkipped() {
+        return duplicatesSkipped;
+    }
+
+    public void setDuplicatesSkipped(long duplicatesSkipped) {
+        this.duplicatesSkipped = duplicatesSkipped;
+    }
+
+    public long getDedupBytesSaved() {
+        return dedupBytesSaved;
+    }
+
+    public void setDedupBytesSaved(long dedupBytesSaved) {
+        this.dedupBytesSaved = dedupBytesSaved;
+    }
 }
@@ -0,0 +1,109 @@
+package com.moments.models;
+
+/**
+ * Outbox entry asking for one moment to be face-tagged. Document id is the moment id, so a moment has at most one
+ * job. Written in the same batch as the moment and deleted once the face-tagging service accepted it.
+ */
+public class FaceTaggingJob {
+
+    /** Waiting for its next attempt, or leased by {@link #leaseOwner} until {@link #nextAttemptAt}. */
+    public static final String STATUS_PENDING = "PENDING";
+    /** Gave up after the maximum number of attempts; kept for inspection and manual requeue. */
+    public static final String STATUS_DEAD = "DEAD";
+
+    private String momentId;
+    private String eventId;
+    private String imageUrl;
+    private String status;
+    private int attempts;
+
+    /** Epoch millis the job is due; while leased, when the lease expires and any worker may claim it. */
+    private long nextAttemptAt;
+
+    /** Instance currently working on the job; null when not leased. */
+    private String leaseOwner;
+
+    private String lastError;
+    private Long createdAt;
+    private Long updatedAt;
+
+    public String getMomentId() {
+        return momentId;
+    }
+
+    public void setMomentId(String momentId) {
+        this.momentId = momentId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,66 @@
+package com.moments.models;
+
+/**
+ * Optimised/thumbnail URLs and byte sizes the face-tagging service reported for one moment; null fields are left
+ * unchanged.
+ */
+public class FaceTaggingStorageUpdate {
+
+    private String momentId;
+    private String feedUrl;
+    private String thumbnailUrl;
+    private Long optimisedSizeBytes;
+    private Long thumbnailSizeBytes;
+
+    public FaceTaggingStorageUpdate() {
+    }
+
+    public FaceTaggingStorageUpdate(String momentId, String feedUrl, String thumbnailUrl, Long optimisedSizeBytes,
+            Long thumbnailSizeBytes) {
+        this.momentId = momentId;
+        this.feedUrl = feedUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.optimisedSizeBytes = optimisedSizeBytes;
+        this.thumbnailSizeBytes = thumbnailSizeBytes;
+    }
+
+    public String getMomentId() {
+        return momentId;
+    }
+
+    public void setMomentId(String momentId) {
+        this.momentId = momentId;
+    }
+
+    public String getFeedUrl() {
+        return feedUrl;
+    }
+
+    public void setFeedUrl(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Long getOptimisedSizeBytes() {
+        return optimisedSizeBytes;
+    }
+
+    public void setOptimisedSizeBytes(Long optimisedSizeBytes) {
+        this.optimisedSizeBytes = optimisedSizeBytes;
+    }
+
+    public Long getThumbnailSizeBytes() {
+        return thumbnailSizeBytes;
+    }
+
+    public void setThumbnailSizeBytes(Long thumbnailSizeBytes) {
+        this.thumbnailSizeBytes = thumbnailSizeBytes;
+    }
+}
@@ -6,6 +6,8 @@ public class FileUploadResponse {
     private String publicUrl;
     /** Byte length of the uploaded object (same as stored in GCS). */
     private Long sizeBytes;
+    /** Hex SHA-256 of the uploaded bytes, computed while streaming; null when not computed. */
+    private String contentSha256;
 
     public FileUploadResponse(String fileName, String fileType, String publicUrl) {
         this.fileName = fileName;
@@ -51,4 +53,12 @@ public class FileUploadResponse {
     public void setSizeBytes(Long sizeBytes) {
         this.sizeBytes = sizeBytes;
     }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
 }
@@ -3,7 +3,9 @@ package com.moments.models;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.Exclude;
 import com.google.cloud.firestore.annotation.PropertyName;
 
 public class Moment {
@@ -41,6 +43,15 @@ public class Moment {
 
     private MomentMemoryUsage memoryUsage;
 
+    /**
+     * Hex SHA-256 of the original upload, used to detect the same image uploaded twice to an event. Only set by
+     * server code from bytes it stored or read; client-supplied values are cleared.
+     */
+    private String contentSha256;
+
+    /** Set by server code that wrote {@code media.url}'s object in the current request; never stored or bound. */
+    private boolean uploadedInRequest;
+
     /**
      * Firestore {@code updated_at} (server timestamp). Must not use Java name {@code updatedAt} or the mapper
      * also binds document key {@code updatedAt}, which may be a numeric (Double) from legacy clients.
@@ -194,6 +205,26 @@ public class Moment {
         this.memoryUsage = memoryUsage;
     }
 
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
+    @Exclude
+    @JsonIgnore
+    public boolean isUploadedInRequest() {
+        return uploadedInRequest;
+    }
+
+    @Exclude
+    @JsonIgnore
+    public void setUploadedInRequest(boolean uploadedInRequest) {
+        this.uploadedInRequest = uploadedInRequest;
+    }
+
     public Timestamp getServerUpdatedAt() {
         return serverUpdatedAt;
     }
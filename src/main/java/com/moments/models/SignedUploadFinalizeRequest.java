@@ -0,0 +1,60 @@
+package com.moments.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/** Lists objects uploaded through {@link SignedUploadTarget}s that should become moments. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SignedUploadFinalizeRequest {
+
+    private String eventId;
+    private String creatorId;
+    private List<UploadedFile> files;
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(String creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public List<UploadedFile> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<UploadedFile> files) {
+        this.files = files;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class UploadedFile {
+        private String objectName;
+        private Long createdTimestamp;
+
+        public String getObjectName() {
+            return objectName;
+        }
+
+        public void setObjectName(String objectName) {
+            this.objectName = objectName;
+        }
+
+        public Long getCreatedTimestamp() {
+            return createdTimestamp;
+        }
+
+        public void setCreatedTimestamp(Long createdTimestamp) {
+            this.createdTimestamp = createdTimestamp;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.moments.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/** Asks for one direct-to-bucket upload URL per file; the bytes never pass through this service. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SignedUploadRequest {
+
+    private String eventId;
+    private String creatorId;
+    private List<FileSpec> files;
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(String creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public List<FileSpec> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileSpec> files) {
+        this.files = files;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FileSpec {
+        private String fileName;
+        private String contentType;
+        private Long sizeBytes;
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public Long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public void setSizeBytes(Long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+        }
+    }
+}
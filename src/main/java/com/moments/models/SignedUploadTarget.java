@@ -0,0 +1,76 @@
+package com.moments.models;
+
+import java.util.Map;
+
+/**
+ * Where and how the client uploads one file. The client sends {@code method} to {@code uploadUrl} with exactly
+ * {@code headers}; the response's {@code Location} header is the resumable session URI to PUT the bytes to.
+ * {@code objectName} is echoed back to the finalize endpoint.
+ */
+public class SignedUploadTarget {
+
+    private String fileName;
+    private String objectName;
+    private String uploadUrl;
+    private String method;
+    private Map<String, String> headers;
+    private long expiresAt;
+
+    public SignedUploadTarget(String fileName, String objectName, String uploadUrl, String method,
+            Map<String, String> headers, long expiresAt) {
+        this.fileName = fileName;
+        this.objectName = objectName;
+        this.uploadUrl = uploadUrl;
+        this.method = method;
+        this.headers = headers;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+
+    public void setUploadUrl(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,152 @@
+package com.moments.service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.moments.models.FileType;
+import com.moments.models.FileUploadResponse;
+import com.moments.utils.ImageHeaderParser;
+
+/**
+ * Uploads the files of one bulk request to GCS in parallel. Each request may have at most
+ * {@code moments.upload.bulk.concurrency} uploads in flight and at most
+ * {@code moments.upload.bulk.memory-budget-bytes} of file data being uploaded at once; the request thread
+ * dispatches files in order as permits free up, so latency tends towards the slowest file instead of the sum.
+ */
+@Service
+public class BulkUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadService.class);
+
+    /** Memory budget permits are counted in KiB so budgets above 2 GiB still fit a {@link Semaphore}. */
+    private static final long PERMIT_BYTES = 1024L;
+
+    @Autowired
+    private GoogleCloudStorageService storageService;
+
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private Executor uploadExecutor;
+
+    @Value("${moments.upload.bulk.concurrency:8}")
+    private int concurrency;
+
+    @Value("${moments.upload.bulk.memory-budget-bytes:268435456}")
+    private long memoryBudgetBytes;
+
+    /**
+     * Per-file result: exactly one of {@code response} and {@code error} is set. {@code imageHeader} is set for
+     * uploaded images whose header could be read.
+     */
+    public static final class UploadOutcome {
+        private final FileUploadResponse response;
+        private final String error;
+        private final ImageHeaderParser.ImageHeader imageHeader;
+
+        private UploadOutcome(FileUploadResponse response, String error) {
+            this(response, error, null);
+        }
+
+        private UploadOutcome(FileUploadResponse response, String error, ImageHeaderParser.ImageHeader imageHeader) {
+            this.response = response;
+            this.error = error;
+            this.imageHeader = imageHeader;
+        }
+
+        public boolean isSuccess() {
+            return response != null;
+        }
+
+        public FileUploadResponse getResponse() {
+            return response;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public ImageHeaderParser.ImageHeader getImageHeader() {
+            return imageHeader;
+        }
+    }
+
+    /**
+     * Uploads every file and returns outcomes in the same order as {@code files}. Empty files fail with
+     * "File is empty"; upload exceptions fail with "Upload failed: ...". Never throws for a single file.
+     */
+    public List<UploadOutcome> uploadAll(MultipartFile[] files, IntFunction<FileType> fileTypeAt)
+            throws InterruptedException {
+        int budgetPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudgetBytes / PERMIT_BYTES));
+        Semaphore slots = new Semaphore(Math.max(1, concurrency));
+        Semaphore memory = new Semaphore(budgetPermits);
+
+        List<CompletableFuture<UploadOutcome>> futures = new ArrayList<>(files.length);
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            if (file.isEmpty()) {
+                futures.add(CompletableFuture.completedFuture(new UploadOutcome(null, "File is empty")));
+                continue;
+            }
+            FileType fileType = fileTypeAt.apply(i);
+            // A file larger than the whole budget takes all of it, so it uploads alone rather than never
+            int weight = (int) Math.min(budgetPermits, Math.max(1, (file.getSize() + PERMIT_BYTES - 1) / PERMIT_BYTES));
+            slots.acquire();
+            try {
+                memory.acquire(weight);
+            } catch (InterruptedException e) {
+                slots.release();
+                throw e;
+            }
+            CompletableFuture<UploadOutcome> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> uploadOne(file, fileType), uploadExecutor);
+            } catch (RuntimeException e) {
+                // Executor rejected the task; record it like any other upload failure
+                future = CompletableFuture.completedFuture(new UploadOutcome(null, "Upload failed: " + e.getMessage()));
+            }
+            futures.add(future.whenComplete((outcome, error) -> {
+                memory.release(weight);
+                slots.release();
+            }));
+        }
+
+        List<UploadOutcome> outcomes = new ArrayList<>(futures.size());
+        for (CompletableFuture<UploadOutcome> future : futures) {
+            outcomes.add(future.join());
+        }
+        return outcomes;
+    }
+
+    private UploadOutcome uploadOne(MultipartFile file, FileType fileType) {
+        try {
+            FileUploadResponse response = storageService.uploadFile(file, fileType);
+            return new UploadOutcome(response, null, fileType == FileType.IMAGE ? readImageHeader(file) : null);
+        } catch (Exception e) {
+            logger.warn("Bulk upload of {} failed: {}", file.getOriginalFilename(), e.getMessage());
+            return new UploadOutcome(null, "Upload failed: " + e.getMessage());
+        }
+    }
+
+    /** Reads only the header bytes of the already-buffered multipart file; a bad header is not an upload error. */
+    private static ImageHeaderParser.ImageHeader readImageHeader(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return ImageHeaderParser.parse(in);
+        } catch (Exception e) {
+            logger.debug("Could not read image header of {}: {}", file.getOriginalFilename(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.moments.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.cloud.storage.Blob;
+import com.moments.models.BulkUploadResponse;
+import com.moments.models.Media;
+import com.moments.models.MediaType;
+import com.moments.models.Moment;
+import com.moments.models.MomentMemoryUsage;
+import com.moments.models.SignedUploadFinalizeRequest;
+import com.moments.models.SignedUploadRequest;
+import com.moments.models.SignedUploadTarget;
+import com.moments.utils.ImageHeaderParser;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Direct-to-bucket uploads: clients get one signed resumable-upload URL per file, upload to GCS themselves, then
+ * call finalize, which checks each object and creates the moments. Photo bytes never pass through this service.
+ * Objects never finalized are deleted by a periodic sweep once they are {@code ttl-minutes} old.
+ */
+@Service
+public class DirectUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectUploadService.class);
+
+    private static final int MAX_FILES_PER_REQUEST = 50;
+    private static final String MOMENT_ID_PREFIX = "upl";
+    /** Upload ids issued by {@link #createUploadTargets}: a dash-less UUID. */
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+
+    @Autowired
+    private GoogleCloudStorageService storageService;
+
+    @Autowired
+    private MomentService momentService;
+
+    @Autowired
+    @Qualifier("retryScheduler")
+    private ScheduledExecutorService scheduler;
+
+    @Value("${moments.upload.signed.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${moments.upload.signed.max-file-bytes:104857600}")
+    private long maxFileBytes;
+
+    /** 0 disables the sweep of abandoned uploads. */
+    @Value("${moments.upload.signed.sweep-interval-minutes:60}")
+    private long sweepIntervalMinutes;
+
+    @PostConstruct
+    void scheduleSweep() {
+        if (sweepIntervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::sweepAbandonedUploads, sweepIntervalMinutes,
+                    sweepIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public List<SignedUploadTarget> createUploadTargets(SignedUploadRequest request) {
+        requireEventAndCreator(request.getEventId(), request.getCreatorId());
+        List<SignedUploadRequest.FileSpec> files = request.getFiles();
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files provided");
+        }
+        if (files.size() > MAX_FILES_PER_REQUEST) {
+            throw new IllegalArgumentException("Maximum " + MAX_FILES_PER_REQUEST + " files allowed per request");
+        }
+        List<SignedUploadTarget> targets = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            SignedUploadRequest.FileSpec file = files.get(i);
+            String contentType = file.getContentType();
+            if (!isMediaContentType(contentType)) {
+                throw new IllegalArgumentException("File at index " + i + " must have an image/* or video/* contentType");
+            }
+            if (file.getSizeBytes() != null && file.getSizeBytes() > maxFileBytes) {
+                throw new IllegalArgumentException("File at index " + i + " exceeds " + maxFileBytes + " bytes");
+            }
+            String uploadId = UUID.randomUUID().toString().replace("-", "");
+            String objectName = storageService.directUploadObjectName(request.getEventId().trim(),
+                    request.getCreatorId().trim(), uploadId);
+            targets.add(storageService.signResumableUpload(file.getFileName(), objectName, contentType, ttlMinutes));
+        }
+        return targets;
+    }
+
+    /**
+     * Verifies each uploaded object (issued to this event/creator, present, non-empty, within the size limit,
+     * media content type) and saves the valid ones as moments. Finalizing the same object twice is a no-op.
+     */
+    public BulkUploadResponse finalizeUploads(SignedUploadFinalizeRequest request)
+            throws ExecutionException, InterruptedException {
+        requireEventAndCreator(request.getEventId(), request.getCreatorId());
+        List<SignedUploadFinalizeRequest.UploadedFile> files = request.getFiles();
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files provided");
+        }
+        if (files.size() > MAX_FILES_PER_REQUEST) {
+            throw new IllegalArgumentException("Maximum " + MAX_FILES_PER_REQUEST + " files allowed per request");
+        }
+        String eventId = request.getEventId().trim();
+        String creatorId = request.getCreatorId().trim();
+        String prefix = storageService.directUploadPrefix(eventId, creatorId);
+
+        List<BulkUploadResponse.FileUploadError> failedFiles = new ArrayList<>();
+        int alreadyFinalized = 0;
+        // momentId -> file, for the names that match an issued upload id
+        Map<String, SignedUploadFinalizeRequest.UploadedFile> issued = new LinkedHashMap<>();
+        for (SignedUploadFinalizeRequest.UploadedFile file : files) {
+            String objectName = file.getObjectName();
+            String label = objectName != null ? objectName : "unknown";
+            if (objectName == null || !objectName.startsWith(prefix)
+                    || !UPLOAD_ID.matcher(objectName.substring(prefix.length())).matches()) {
+                failedFiles.add(new BulkUploadResponse.FileUploadError(label,
+                        "Object was not issued for this event and creator"));
+                continue;
+            }
+            String momentId = MOMENT_ID_PREFIX + objectName.substring(prefix.length());
+            if (issued.putIfAbsent(momentId, file) != null) {
+                // Listed twice in this request; finalized once
+                alreadyFinalized++;
+            }
+        }
+        Set<String> existing = momentService.findExistingMomentIds(issued.keySet());
+
+        List<Moment> momentsToCreate = new ArrayList<>();
+        for (Map.Entry<String, SignedUploadFinalizeRequest.UploadedFile> entry : issued.entrySet()) {
+            String momentId = entry.getKey();
+            SignedUploadFinalizeRequest.UploadedFile file = entry.getValue();
+            String objectName = file.getObjectName();
+            String label = objectName;
+            if (existing.contains(momentId)) {
+                alreadyFinalized++;
+                continue;
+            }
+            Blob blob = storageService.getBlob(objectName);
+            if (blob == null) {
+                failedFiles.add(new BulkUploadResponse.FileUploadError(label, "Upload not found"));
+                continue;
+            }
+            long size = blob.getSize() != null ? blob.getSize() : 0L;
+            String contentType = blob.getContentType();
+            String problem = size <= 0L ? "File is empty"
+                    : size > maxFileBytes ? "File exceeds " + maxFileBytes + " bytes"
+                    : !isMediaContentType(contentType) ? "Unsupported content type: " + contentType
+                    : null;
+            if (problem != null) {
+                failedFiles.add(new BulkUploadResponse.FileUploadError(label, problem));
+                deleteQuietly(objectName);
+                continue;
+            }
+
+            Media media = new Media();
+            media.setUrl(storageService.publicUrlFor(objectName));
+            media.setType(contentType.startsWith("video/") ? MediaType.VIDEO : MediaType.IMAGE);
+
+            Moment moment = new Moment();
+            moment.setMomentId(momentId);
+            moment.setCreatorId(creatorId);
+            moment.setEventId(eventId);
+            moment.setCreationTime(file.getCreatedTimestamp() != null && file.getCreatedTimestamp() > 0
+                    ? file.getCreatedTimestamp() : null);
+            moment.setMedia(media);
+            MomentMemoryUsage usage = new MomentMemoryUsage();
+            usage.setOriginalUploadSizeBytes(size);
+            moment.setMemoryUsage(usage);
+            if (media.getType() == MediaType.IMAGE) {
+                ImageHeaderParser.fillMissing(moment, readImageHeader(blob));
+            }
+            momentsToCreate.add(moment);
+        }
+
+        List<String> createdMomentIds = momentsToCreate.isEmpty()
+                ? new ArrayList<>()
+                : momentService.saveMoments(momentsToCreate, false);
+        return new BulkUploadResponse(files.size(), createdMomentIds.size() + alreadyFinalized, failedFiles.size(),
+                null, failedFiles);
+    }
+
+    /**
+     * Deletes direct uploads created more than {@code ttl-minutes} ago that have no {@code upl<id>} moment: sessions
+     * that were abandoned, or never finalized, and would otherwise stay in the bucket outside any event's storage.
+     */
+    void sweepAbandonedUploads() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(ttlMinutes);
+        AtomicInteger deleted = new AtomicInteger();
+        try {
+            storageService.forEachObjectPageCreatedBefore(storageService.directUploadRoot(), cutoff,
+                    names -> deleted.addAndGet(deleteUnfinalized(names)));
+        } catch (Exception e) {
+            // Runs on the scheduler thread; the next sweep picks up what this one missed
+            logger.warn("Sweep of abandoned direct uploads failed: {}", e.getMessage());
+        }
+        if (deleted.get() > 0) {
+            logger.info("Deleted {} abandoned direct upload(s)", deleted.get());
+        }
+    }
+
+    private int deleteUnfinalized(List<String> objectNames) {
+        // momentId -> object; names that are not an issued upload id are left alone
+        Map<String, String> byMomentId = new LinkedHashMap<>();
+        for (String objectName : objectNames) {
+            String uploadId = objectName.substring(objectName.lastIndexOf('/') + 1);
+            if (UPLOAD_ID.matcher(uploadId).matches()) {
+                byMomentId.put(MOMENT_ID_PREFIX + uploadId, objectName);
+            }
+        }
+        Set<String> finalized;
+        try {
+            finalized = momentService.findExistingMomentIds(byMomentId.keySet());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking direct uploads", e);
+        } catch (ExecutionException e) {
+            logger.warn("Could not check {} direct upload(s) for moments: {}", byMomentId.size(), e.getMessage());
+            return 0;
+        }
+        int deleted = 0;
+        for (Map.Entry<String, String> entry : byMomentId.entrySet()) {
+            if (!finalized.contains(entry.getKey()) && deleteQuietly(entry.getValue())) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /** Dimensions and capture time for a moment are optional, so an unreadable header is only logged. */
+    private ImageHeaderParser.ImageHeader readImageHeader(Blob blob) {
+        try {
+            return storageService.readImageHeader(blob);
+        } catch (Exception e) {
+            logger.warn("Could not read image header of {}: {}", blob.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean deleteQuietly(String objectName) {
+        try {
+            return storageService.deleteObject(objectName);
+        } catch (Exception e) {
+            logger.warn("Could not delete direct upload {}: {}", objectName, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void requireEventAndCreator(String eventId, String creatorId) {
+        if (eventId == null || eventId.isBlank()) {
+            throw new IllegalArgumentException("eventId is required");
+        }
+        if (creatorId == null || creatorId.isBlank()) {
+            throw new IllegalArgumentException("creatorId is required");
+        }
+    }
+
+    private static boolean isMediaContentType(String contentType) {
+        return contentType != null && (contentType.startsWith("image/") || contentType.startsWith("video/"));
+    }
+}
@@ -0,0 +1,238 @@
+package com.moments.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpResponseException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Token bucket shared by every Drive API call of every import, so concurrent imports stay under the project's
+ * Drive quota together. The rate adapts (AIMD): each success raises it by {@code increase-per-second} per second
+ * of traffic, each throttle response (429, or 403 {@code rateLimitExceeded}/{@code userRateLimitExceeded})
+ * multiplies it by {@code decrease-factor}, at most once per {@code decrease-cooldown-ms} so one burst of 429s
+ * from concurrent calls counts once. Throttled and 5xx calls are retried with full-jitter exponential backoff.
+ * Metrics: {@code moments.drive.rate.*} under /actuator/metrics.
+ */
+@Component
+public class DriveApiRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriveApiRateLimiter.class);
+
+    /** One Drive API request; {@link #call} may run it more than once. */
+    @FunctionalInterface
+    public interface DriveCall<T> {
+        T execute() throws IOException;
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${google.drive.rate.initial-per-second:20}")
+    private double initialRate;
+
+    @Value("${google.drive.rate.min-per-second:1}")
+    private double minRate;
+
+    @Value("${google.drive.rate.max-per-second:150}")
+    private double maxRate;
+
+    @Value("${google.drive.rate.increase-per-second:1}")
+    private double increasePerSecond;
+
+    @Value("${google.drive.rate.decrease-factor:0.5}")
+    private double decreaseFactor;
+
+    @Value("${google.drive.rate.decrease-cooldown-ms:1000}")
+    private long decreaseCooldownMs;
+
+    @Value("${google.drive.rate.max-retries:6}")
+    private int maxRetries;
+
+    @Value("${google.drive.rate.backoff-base-ms:500}")
+    private long backoffBaseMs;
+
+    @Value("${google.drive.rate.backoff-max-ms:32000}")
+    private long backoffMaxMs;
+
+    // Bucket state, guarded by this object's monitor. Tokens may go negative: a caller reserves its permit and
+    // sleeps off the debt outside the lock.
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastDecreaseNanos;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong waitMillis = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        synchronized (this) {
+            rate = clamp(initialRate);
+            tokens = 1.0;
+            lastRefillNanos = System.nanoTime();
+            lastDecreaseNanos = lastRefillNanos - TimeUnit.MILLISECONDS.toNanos(decreaseCooldownMs);
+        }
+        Gauge.builder("moments.drive.rate.permits-per-second", this, DriveApiRateLimiter::getRate)
+                .register(meterRegistry);
+        FunctionCounter.builder("moments.drive.rate.calls", calls, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.drive.rate.throttled", throttled, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.drive.rate.retries", retries, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.drive.rate.exhausted", exhausted, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.drive.rate.wait-ms", waitMillis, AtomicLong::get).register(meterRegistry);
+        logger.info("Drive API rate limiter: initial={}/s min={}/s max={}/s", rate, minRate, maxRate);
+    }
+
+    /**
+     * Runs {@code call} once a permit is available, retrying throttle and server errors. The last error is
+     * rethrown once {@code max-retries} is used up; other errors are rethrown at once.
+     */
+    public <T> T call(DriveCall<T> call) throws IOException {
+        for (int attempt = 0;; attempt++) {
+            acquire();
+            calls.incrementAndGet();
+            try {
+                T result = call.execute();
+                onSuccess();
+                return result;
+            } catch (HttpResponseException e) {
+                boolean throttle = isThrottle(e);
+                if (throttle) {
+                    throttled.incrementAndGet();
+                    onThrottle();
+                }
+                if (!throttle && e.getStatusCode() < 500) {
+                    throw e;
+                }
+                if (attempt >= maxRetries) {
+                    exhausted.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                long delay = backoffMillis(attempt, e);
+                logger.debug("Drive API {} (attempt {}); retrying in {} ms at {}/s", e.getStatusCode(),
+                        attempt + 1, delay, String.format("%.1f", getRate()));
+                sleep(delay);
+            }
+        }
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private void acquire() throws InterruptedIOException {
+        long waitNanos;
+        synchronized (this) {
+            refill(System.nanoTime());
+            tokens -= 1.0;
+            waitNanos = tokens >= 0 ? 0L : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+        }
+        if (waitNanos > 0) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+            waitMillis.addAndGet(ms);
+            sleep(Math.max(1L, ms));
+        }
+    }
+
+    /** Adds tokens for the time since the last refill; the bucket holds at most one second of permits. */
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(Math.max(1.0, rate), tokens + elapsedSeconds * rate);
+        lastRefillNanos = now;
+    }
+
+    private synchronized void onSuccess() {
+        // +increasePerSecond for every second's worth of successful calls at the current rate
+        refill(System.nanoTime());
+        rate = clamp(rate + increasePerSecond / rate);
+    }
+
+    private synchronized void onThrottle() {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < TimeUnit.MILLISECONDS.toNanos(decreaseCooldownMs)) {
+            return;
+        }
+        refill(now);
+        double previous = rate;
+        rate = clamp(rate * decreaseFactor);
+        // Drop the burst allowance too, or queued callers would fire it straight back into the quota
+        tokens = Math.min(tokens, 0.0);
+        lastDecreaseNanos = now;
+        logger.info("Drive API throttled; rate {}/s -> {}/s", String.format("%.1f", previous),
+                String.format("%.1f", rate));
+    }
+
+    private double clamp(double r) {
+        return Math.max(minRate, Math.min(maxRate, r));
+    }
+
+    /** Full jitter over the exponential window, but never sooner than a Retry-After header asks. */
+    private long backoffMillis(int attempt, HttpResponseException e) {
+        long window = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt, 20));
+        long delay = ThreadLocalRandom.current().nextLong(window + 1);
+        String retryAfter = e.getHeaders() != null ? e.getHeaders().getRetryAfter() : null;
+        if (retryAfter != null) {
+            try {
+                delay = Math.max(delay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form; the jittered delay is used
+            }
+        }
+        return delay;
+    }
+
+    private static boolean isThrottle(HttpResponseException e) {
+        if (e.getStatusCode() == 429) {
+            return true;
+        }
+        if (e.getStatusCode() != 403) {
+            return false;
+        }
+        if (e instanceof GoogleJsonResponseException && ((GoogleJsonResponseException) e).getDetails() != null) {
+            List<GoogleJsonError.ErrorInfo> errors = ((GoogleJsonResponseException) e).getDetails().getErrors();
+            if (errors != null) {
+                for (GoogleJsonError.ErrorInfo info : errors) {
+                    if (isRateLimitReason(info.getReason())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        String content = e.getContent();
+        return content != null && (content.contains("rateLimitExceeded") || content.contains("userRateLimitExceeded"));
+    }
+
+    private static boolean isRateLimitReason(String reason) {
+        return "rateLimitExceeded".equals(reason) || "userRateLimitExceeded".equals(reason);
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Drive API rate limit");
+        }
+    }
+}
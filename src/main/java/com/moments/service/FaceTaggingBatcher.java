@@ -0,0 +1,144 @@
+package com.moments.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moments.models.FaceTaggingJob;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Coalesces face-tagging jobs from separate requests into one call per event: an event's jobs are held until
+ * {@code max-items} have arrived or {@code window-ms} has passed since the first, whichever comes first. Jobs are
+ * already persisted and leased, so anything still held when the instance stops is picked up by the outbox poller.
+ * Metrics: {@code moments.face-tagging.batch.*} under /actuator/metrics (items / flushes is the mean batch size).
+ */
+@Component
+public class FaceTaggingBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaceTaggingBatcher.class);
+
+    @Autowired
+    private FaceTaggingJobService faceTaggingJobService;
+
+    @Autowired
+    @Qualifier("retryScheduler")
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${face.tagging.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${face.tagging.batch.max-items:49}")
+    private int maxItems;
+
+    /** Well under {@code face.tagging.outbox.lease-ms}, or the poller would claim held jobs first. */
+    @Value("${face.tagging.batch.window-ms:2000}")
+    private long windowMs;
+
+    private static final class Pending {
+        private final List<FaceTaggingJob> jobs = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+    }
+
+    /** Open batches by event id, guarded by this object's monitor. */
+    private final Map<String, Pending> pending = new HashMap<>();
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        FunctionCounter.builder("moments.face-tagging.batch.flushes", flushes, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("moments.face-tagging.batch.items", items, AtomicLong::get).register(meterRegistry);
+    }
+
+    /** Queues jobs (leased to this instance, from {@link FaceTaggingJobService#newJobs}) for a coalesced call. */
+    public void submit(List<FaceTaggingJob> jobs) {
+        if (jobs == null || jobs.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            dispatch(jobs);
+            return;
+        }
+        List<List<FaceTaggingJob>> full = new ArrayList<>();
+        synchronized (this) {
+            for (FaceTaggingJob job : jobs) {
+                String eventId = job.getEventId();
+                Pending batch = pending.computeIfAbsent(eventId, k -> new Pending());
+                batch.jobs.add(job);
+                if (batch.jobs.size() >= maxItems) {
+                    pending.remove(eventId);
+                    if (batch.timer != null) {
+                        batch.timer.cancel(false);
+                    }
+                    full.add(batch.jobs);
+                } else if (batch.timer == null) {
+                    batch.timer = scheduler.schedule(() -> flush(eventId, batch), windowMs, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        for (List<FaceTaggingJob> batch : full) {
+            dispatch(batch);
+        }
+    }
+
+    @PreDestroy
+    void flushAll() {
+        List<Pending> open;
+        synchronized (this) {
+            open = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Pending batch : open) {
+            if (batch.timer != null) {
+                batch.timer.cancel(false);
+            }
+            dispatch(batch.jobs);
+        }
+    }
+
+    private void flush(String eventId, Pending batch) {
+        synchronized (this) {
+            // Already sent because it filled up
+            if (pending.get(eventId) != batch) {
+                return;
+            }
+            pending.remove(eventId);
+        }
+        dispatch(batch.jobs);
+    }
+
+    private void dispatch(List<FaceTaggingJob> jobs) {
+        flushes.incrementAndGet();
+        items.addAndGet(jobs.size());
+        logger.debug("Dispatching face-tagging batch of {} job(s) for event {}", jobs.size(),
+                jobs.get(0).getEventId());
+        try {
+            faceTaggingJobService.dispatch(jobs);
+        } catch (Exception e) {
+            // Runs on the scheduler thread; the jobs are retried by the outbox once their lease expires
+            logger.warn("Could not dispatch {} face-tagging job(s): {}", jobs.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.moments.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.moments.dao.FaceTaggingJobDao;
+import com.moments.models.FaceTaggingJob;
+import com.moments.models.Media;
+import com.moments.models.Moment;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Durable face tagging. A job per moment is written in the moment's save batch, already leased to this instance,
+ * and dispatched straight away; if the call fails the job backs off exponentially, and if the instance goes away
+ * its lease expires. Every instance polls for due jobs (new, backed off or with an expired lease), so no saved
+ * moment is left untagged. A job is deleted once the service accepted it and dead-lettered
+ * ({@link FaceTaggingJob#STATUS_DEAD}) after {@code face.tagging.outbox.max-attempts}.
+ */
+@Service
+public class FaceTaggingJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaceTaggingJobService.class);
+
+    /** Claim rounds per poll, so a backlog drains faster than one batch per poll interval. */
+    private static final int MAX_ROUNDS_PER_POLL = 10;
+
+    /** Identifies this instance's leases. */
+    private final String owner = UUID.randomUUID().toString();
+
+    @Autowired
+    private FaceTaggingJobDao jobDao;
+
+    @Autowired
+    private FaceTaggingService faceTaggingService;
+
+    @Autowired
+    private FaceTaggingServiceGuard faceTaggingServiceGuard;
+
+    @Autowired
+    @Qualifier("retryScheduler")
+    private ScheduledExecutorService retryScheduler;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${face.tagging.outbox.poll-ms:5000}")
+    private long pollMs;
+
+    /** Longer than a face-tagging call may take, or a slow call's job is claimed again by another instance. */
+    @Value("${face.tagging.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${face.tagging.outbox.batch-size:25}")
+    private int batchSize;
+
+    @Value("${face.tagging.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${face.tagging.outbox.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+
+    @Value("${face.tagging.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @PostConstruct
+    void startPolling() {
+        retryScheduler.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        logger.info("Face-tagging outbox polling every {} ms (instance {})", pollMs, owner);
+    }
+
+    /**
+     * Jobs for the taggable moments (event and image URL set), leased to this instance so {@link #dispatch} can
+     * run them without a claim. Pass them to {@code MomentDao.saveMomentsBatch} with the moments.
+     */
+    public List<FaceTaggingJob> newJobs(List<Moment> moments) {
+        long now = System.currentTimeMillis();
+        List<FaceTaggingJob> jobs = new ArrayList<>(moments.size());
+        for (Moment moment : moments) {
+            if (moment.getEventId() == null || moment.getEventId().isBlank() || moment.getMedia() == null
+                    || moment.getMedia().getUrl() == null || moment.getMedia().getUrl().isBlank()) {
+                continue;
+            }
+            FaceTaggingJob job = new FaceTaggingJob();
+            job.setMomentId(moment.getMomentId());
+            job.setEventId(moment.getEventId());
+            job.setImageUrl(moment.getMedia().getUrl());
+            job.setStatus(FaceTaggingJob.STATUS_PENDING);
+            job.setLeaseOwner(owner);
+            job.setNextAttemptAt(now + leaseMs);
+            job.setCreatedAt(now);
+            job.setUpdatedAt(now);
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    /**
+     * Sends the jobs (leased to this instance) to the face-tagging service as one batch, then completes them or
+     * records the failure. Whatever goes wrong, a job not completed runs again once its lease expires.
+     */
+    public CompletableFuture<Void> dispatch(List<FaceTaggingJob> jobs) {
+        if (jobs == null || jobs.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<Moment> moments = new ArrayList<>(jobs.size());
+        List<String> momentIds = new ArrayList<>(jobs.size());
+        for (FaceTaggingJob job : jobs) {
+            Media media = new Media();
+            media.setUrl(job.getImageUrl());
+            Moment moment = new Moment();
+            moment.setMomentId(job.getMomentId());
+            moment.setEventId(job.getEventId());
+            moment.setMedia(media);
+            moments.add(moment);
+            momentIds.add(job.getMomentId());
+        }
+        // Job bookkeeping blocks on Firestore, so keep it off the HTTP client's I/O thread
+        return faceTaggingService.tagMomentsBatch(moments).handleAsync((ignored, error) -> {
+            if (error == null) {
+                complete(momentIds);
+            } else if (unwrap(error) instanceof FaceTaggingServiceGuard.RejectedException) {
+                // Shed without spending an attempt: the jobs stay leased and are claimed again when it expires
+                logger.info("Face tagging for {} job(s) deferred: {}", jobs.size(), unwrap(error).getMessage());
+            } else {
+                Throwable cause = unwrap(error);
+                for (FaceTaggingJob job : jobs) {
+                    recordFailure(job, cause);
+                }
+            }
+            return null;
+        }, taskExecutor);
+    }
+
+    private void poll() {
+        try {
+            for (int round = 0; round < MAX_ROUNDS_PER_POLL; round++) {
+                if (faceTaggingServiceGuard.isOpen()) {
+                    // Claimed jobs would only be shed; leave them for when the circuit is retried
+                    return;
+                }
+                List<FaceTaggingJob> jobs = jobDao.claimDue(owner, leaseMs, batchSize);
+                if (jobs.isEmpty()) {
+                    return;
+                }
+                logger.info("Face-tagging outbox claimed {} due job(s)", jobs.size());
+                dispatch(jobs).join();
+                if (jobs.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Never let an exception escape: it would cancel the scheduled poll for the life of the instance
+            logger.warn("Face-tagging outbox poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void complete(List<String> momentIds) {
+        try {
+            jobDao.complete(momentIds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // The jobs run again when their lease expires; tagging a moment twice is harmless
+            logger.warn("Could not complete {} face-tagging job(s): {}", momentIds.size(), e.getMessage());
+        }
+    }
+
+    private void recordFailure(FaceTaggingJob job, Throwable cause) {
+        try {
+            FaceTaggingJob updated = jobDao.recordFailure(job.getMomentId(), owner, cause.getMessage(), maxAttempts,
+                    this::retryDelayMs);
+            if (updated == null) {
+                return;
+            }
+            if (FaceTaggingJob.STATUS_DEAD.equals(updated.getStatus())) {
+                logger.error("Face tagging for moment {} dead-lettered after {} attempts: {}", job.getMomentId(),
+                        updated.getAttempts(), cause.getMessage());
+            } else {
+                logger.warn("Face tagging for moment {} failed (attempt {}), retrying at {}: {}", job.getMomentId(),
+                        updated.getAttempts(), updated.getNextAttemptAt(), cause.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Could not record face-tagging failure for {}: {}", job.getMomentId(), e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /** Exponential with equal jitter: half the window plus a random share of the other half. */
+    private long retryDelayMs(int attempts) {
+        long window = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+        return window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1);
+    }
+}
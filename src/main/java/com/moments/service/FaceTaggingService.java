@@ -1,39 +1,48 @@
 package com.moments.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
+import java.util.concurrent.Executor;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.moments.dao.EventDao;
 import com.moments.dao.MomentDao;
 import com.moments.models.FaceTaggingResult;
+import com.moments.models.FaceTaggingStorageUpdate;
 import com.moments.models.Moment;
-import com.moments.models.MomentMemoryUsage;
+import com.moments.utils.FaceTaggingResponseParser;
 
 @Service
 public class FaceTaggingService {
 
     private static final Logger logger = LoggerFactory.getLogger(FaceTaggingService.class);
 
+    private static final int MAX_LOGGED_BODY_CHARS = 500;
+
     @Autowired
-    private CloseableHttpClient httpClient;
+    private CloseableHttpAsyncClient httpAsyncClient;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -42,7 +51,7 @@ public class FaceTaggingService {
     private MomentDao momentDao;
 
     @Autowired
-    private EventDao eventDao;
+    private FaceTaggingServiceGuard guard;
 
     @Value("${face.tagging.service.url}")
     private String faceTaggingServiceUrl;
@@ -62,10 +71,18 @@ public class FaceTaggingService {
      * to ensure the main selfie upload process continues even if face tagging fails
      */
     public FaceTaggingResult processSelfieSync(String userId, String selfieUrl, String eventId) {
-        logger.info("Starting sync selfie processing for user: {}, event: {}", userId, eventId);
+        return processSelfieAsync(userId, selfieUrl, eventId).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #processSelfieSync}; the future always completes normally with a result
+     * describing success or failure.
+     */
+    public CompletableFuture<FaceTaggingResult> processSelfieAsync(String userId, String selfieUrl, String eventId) {
+        logger.info("Starting selfie processing for user: {}, event: {}", userId, eventId);
         // Call the face tagging service, parse response, and extract relevant info, as
         // per the rules.
-        FaceTaggingResult taggingResult = new FaceTaggingResult();
+        String jsonRequest;
         try {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("user_id", userId);
@@ -73,324 +90,243 @@ public class FaceTaggingService {
             requestBody.put("event_id", eventId);
             requestBody.put("face_matching", true);
 
-            String jsonRequest = objectMapper.writeValueAsString(requestBody);
-
-            HttpPost httpPost = new HttpPost(faceTaggingServiceUrl + "/api/v1/face-embeddings/selfie/process");
-            httpPost.setHeader("Content-Type", "application/json");
-            httpPost.setEntity(new StringEntity(jsonRequest));
+            jsonRequest = objectMapper.writeValueAsString(requestBody);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(selfieFailure(userId, e));
+        }
 
-            logger.info("Calling face tagging service for selfie processing: {}", jsonRequest);
+        logger.info("Calling face tagging service for selfie processing: {}", jsonRequest);
 
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getStatusLine().getStatusCode();
-                String responseBody = EntityUtils.toString(response.getEntity());
-                taggingResult.setRawResponse(responseBody);
-                taggingResult.setHttpStatus(statusCode);
+        return postJson("/api/v1/face-embeddings/selfie/process", jsonRequest, true)
+                .thenApply(response -> {
+                    try {
+                        return toSelfieResult(userId, response);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(e -> selfieFailure(userId, unwrap(e)));
+    }
 
-                // Default to failure unless proven otherwise
+    private FaceTaggingResult toSelfieResult(String userId, SimpleHttpResponse response) throws Exception {
+        int statusCode = response.getCode();
+        FaceTaggingResult taggingResult = new FaceTaggingResult();
+        // Returned to the client as part of the selfie upload response
+        taggingResult.setRawResponse(response.getBodyText());
+        taggingResult.setHttpStatus(statusCode);
+
+        // Default to failure unless proven otherwise
+        taggingResult.setSuccess(false);
+
+        if (statusCode >= 200 && statusCode < 300) {
+            // Read straight from the body bytes; the embedding vectors are skipped, not materialised
+            FaceTaggingResponseParser.SelfieResponse parsed = FaceTaggingResponseParser
+                    .parseSelfie(objectMapper.getFactory(), response.getBodyBytes());
+            logger.info("Selfie processing successful for user: {}, faces: {}, quality: {}, matches: {}", userId,
+                    parsed.getFaceCount(), parsed.getQualityScore(), parsed.getMatchCount());
+
+            // 1. Parse face count
+            int faceCount = parsed.getFaceCount();
+            taggingResult.setFaceCount(faceCount);
+
+            // Rule 1: If no face detected
+            if (faceCount == 0) {
                 taggingResult.setSuccess(false);
+                taggingResult.setHttpStatus(400);
+                taggingResult.setMessage("No face detected! Please try again.");
+                taggingResult.setMatchCount(0);
+                taggingResult.setAverageQualityScore(null);
+                return taggingResult;
+            }
 
-                if (statusCode >= 200 && statusCode < 300) {
-                    logger.info("Selfie processing successful for user: {}, response: {}", userId, responseBody);
-
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> parsed = objectMapper.readValue(responseBody, Map.class);
-
-                    // 1. Parse face count
-                    int faceCount = 0;
-                    if (parsed.containsKey("face_count")) {
-                        faceCount = ((Number) parsed.get("face_count")).intValue();
-                    }
-                    taggingResult.setFaceCount(faceCount);
-
-                    // Rule 1: If no face detected
-                    if (faceCount == 0) {
-                        taggingResult.setSuccess(false);
-                        taggingResult.setHttpStatus(400);
-                        taggingResult.setMessage("No face detected! Please try again.");
-                        taggingResult.setMatchCount(0);
-                        taggingResult.setAverageQualityScore(null);
-                        return taggingResult;
-                    }
+            // 2. Parse quality_score, only first embedding
+            Double faceQualityScore = parsed.getQualityScore();
+            taggingResult.setAverageQualityScore(faceQualityScore);
 
-                    // 2. Parse quality_score, only first embedding
-                    Double faceQualityScore = null;
-                    if (parsed.containsKey("embeddings")) {
-                        Object embeddingsObj = parsed.get("embeddings");
-                        if (embeddingsObj instanceof java.util.List) {
-                            java.util.List<?> embeddingsList = (java.util.List<?>) embeddingsObj;
-                            if (!embeddingsList.isEmpty() && embeddingsList.get(0) instanceof Map) {
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> embMap = (Map<String, Object>) embeddingsList.get(0);
-                                if (embMap.get("quality_score") != null) {
-                                    try {
-                                        faceQualityScore = ((Number) embMap.get("quality_score")).doubleValue();
-                                    } catch (Exception e) {
-                                        logger.warn("Error parsing quality_score: {}", e.getMessage());
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    taggingResult.setAverageQualityScore(faceQualityScore);
-
-                    // Rule 2: Face detected but quality too low
-                    double QUALITY_THRESHOLD = 0.5;
-                    if (faceQualityScore == null || faceQualityScore < QUALITY_THRESHOLD) {
-                        taggingResult.setSuccess(false);
-                        taggingResult.setHttpStatus(400);
-                        taggingResult.setMessage("Ask user to use better lighting and background");
-                        taggingResult.setMatchCount(0);
-                        return taggingResult;
-                    }
+            // Rule 2: Face detected but quality too low
+            double QUALITY_THRESHOLD = 0.5;
+            if (faceQualityScore == null || faceQualityScore < QUALITY_THRESHOLD) {
+                taggingResult.setSuccess(false);
+                taggingResult.setHttpStatus(400);
+                taggingResult.setMessage("Ask user to use better lighting and background");
+                taggingResult.setMatchCount(0);
+                return taggingResult;
+            }
 
-                    // 3. Parse matches list
-                    int matchCount = 0;
-                    if (parsed.containsKey("matches")) {
-                        Object matchesObj = parsed.get("matches");
-                        if (matchesObj instanceof java.util.List) {
-                            matchCount = ((java.util.List<?>) matchesObj).size();
-                        }
-                    }
-                    taggingResult.setMatchCount(matchCount);
+            // 3. Parse matches list
+            int matchCount = parsed.getMatchCount();
+            taggingResult.setMatchCount(matchCount);
 
-                    // Rule 3: If 1 face detected, check matches
-                    if (matchCount > 0) {
-                        taggingResult.setSuccess(true);
-                        taggingResult.setHttpStatus(200);
-                        taggingResult.setMessage(matchCount + " moments found");
-                    } else {
-                        taggingResult.setSuccess(false);
-                        taggingResult.setHttpStatus(400);
-                        taggingResult.setMessage("No moments found");
-                    }
-                    return taggingResult;
-                } else {
-                    logger.warn("Selfie processing failed for user: {}, status: {}, response: {}",
-                            userId, statusCode, responseBody);
-                    taggingResult.setSuccess(false);
-                    taggingResult.setHttpStatus(400);
-                    taggingResult.setMessage("Please try again with a better selfie!");
-                    taggingResult.setFaceCount(0);
-                    taggingResult.setMatchCount(0);
-                    taggingResult.setAverageQualityScore(null);
-                    return taggingResult;
-                }
+            // Rule 3: If 1 face detected, check matches
+            if (matchCount > 0) {
+                taggingResult.setSuccess(true);
+                taggingResult.setHttpStatus(200);
+                taggingResult.setMessage(matchCount + " moments found");
+            } else {
+                taggingResult.setSuccess(false);
+                taggingResult.setHttpStatus(400);
+                taggingResult.setMessage("No moments found");
             }
-
-        } catch (Exception e) {
-            logger.error("Error processing selfie for user: {}, error: {}", userId, e.getMessage(), e);
+            return taggingResult;
+        } else {
+            logger.warn("Selfie processing failed for user: {}, status: {}, response: {}",
+                    userId, statusCode, snippet(response));
             taggingResult.setSuccess(false);
-            taggingResult.setHttpStatus(500);
-            taggingResult.setMessage("Internal server error during face tagging.");
+            taggingResult.setHttpStatus(400);
+            taggingResult.setMessage("Please try again with a better selfie!");
             taggingResult.setFaceCount(0);
             taggingResult.setMatchCount(0);
             taggingResult.setAverageQualityScore(null);
-            // Don't throw exception - fail silently to not break the main flow
             return taggingResult;
         }
     }
 
+    private FaceTaggingResult selfieFailure(String userId, Throwable e) {
+        logger.error("Error processing selfie for user: {}, error: {}", userId, e.getMessage(), e);
+        FaceTaggingResult taggingResult = new FaceTaggingResult();
+        taggingResult.setSuccess(false);
+        taggingResult.setHttpStatus(500);
+        taggingResult.setMessage("Internal server error during face tagging.");
+        taggingResult.setFaceCount(0);
+        taggingResult.setMatchCount(0);
+        taggingResult.setAverageQualityScore(null);
+        // Don't throw exception - fail silently to not break the main flow
+        return taggingResult;
+    }
 
     /**
-     * Synchronous batch call to the face service (use during Cloud Run requests so CPU stays allocated).
+     * Batch call to the face service. The HTTP call holds no thread while in flight; storage write-back runs on
+     * {@code taskExecutor}. Completes exceptionally when the request fails, the service answers with a non-2xx
+     * status or the write-back fails, so the caller can retry. Moments without an event or image URL are left out
+     * (and count as done).
      */
-    public void processMomentsBatchSync(List<Moment> moments) {
-        logger.info("Starting batch moment processing (sync) for {} moments", moments != null ? moments.size() : 0);
-        try {
-            if (moments == null || moments.isEmpty()) {
-                logger.warn("Empty moments list provided for batch processing");
-                return;
-            }
-
-            Map<String, Object> batchRequest = new HashMap<>();
-            List<Map<String, Object>> momentsList = new ArrayList<>();
-
-            for (Moment moment : moments) {
-                if (moment.getEventId() != null && !moment.getEventId().trim().isEmpty() &&
-                        moment.getMedia() != null && moment.getMedia().getUrl() != null
-                        && !moment.getMedia().getUrl().trim().isEmpty()) {
-
-                    Map<String, Object> momentRequest = new HashMap<>();
-                    momentRequest.put("moment_id", moment.getMomentId());
-                    momentRequest.put("image_url", moment.getMedia().getUrl());
-                    momentRequest.put("event_id", moment.getEventId());
-                    momentRequest.put("match_faces", true);
-                    momentsList.add(momentRequest);
-                } else {
-                    logger.warn("Skipping moment {} due to missing eventId or imageUrl", moment.getMomentId());
-                }
-            }
+    public CompletableFuture<Void> tagMomentsBatch(List<Moment> moments) {
+        logger.info("Starting batch moment processing for {} moments", moments != null ? moments.size() : 0);
+        if (moments == null || moments.isEmpty()) {
+            logger.warn("Empty moments list provided for batch processing");
+            return CompletableFuture.completedFuture(null);
+        }
 
-            if (momentsList.isEmpty()) {
-                logger.warn("No valid moments found for batch processing");
-                return;
+        Map<String, Object> batchRequest = new HashMap<>();
+        List<Map<String, Object>> momentsList = new ArrayList<>();
+
+        for (Moment moment : moments) {
+            if (moment.getEventId() != null && !moment.getEventId().trim().isEmpty() &&
+                    moment.getMedia() != null && moment.getMedia().getUrl() != null
+                    && !moment.getMedia().getUrl().trim().isEmpty()) {
+
+                Map<String, Object> momentRequest = new HashMap<>();
+                momentRequest.put("moment_id", moment.getMomentId());
+                momentRequest.put("image_url", moment.getMedia().getUrl());
+                momentRequest.put("event_id", moment.getEventId());
+                momentRequest.put("match_faces", true);
+                momentsList.add(momentRequest);
+            } else {
+                logger.warn("Skipping moment {} due to missing eventId or imageUrl", moment.getMomentId());
             }
+        }
 
-            batchRequest.put("moments", momentsList);
-            String jsonRequest = objectMapper.writeValueAsString(batchRequest);
-
-            HttpPost httpPost = new HttpPost(faceTaggingServiceUrl + "/api/v1/face-embeddings/moments/batch");
-            httpPost.setHeader("Content-Type", "application/json");
-            httpPost.setEntity(new StringEntity(jsonRequest));
-
-            logger.info("Calling face tagging service for batch processing: {} moments", momentsList.size());
-
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getStatusLine().getStatusCode();
-                String responseBody = EntityUtils.toString(response.getEntity());
-
-                if (statusCode >= 200 && statusCode < 300) {
-                    logger.info("Batch moment processing successful for {} moments, response: {}",
-                            momentsList.size(), responseBody);
-                    applyBatchFaceTaggingStorageUpdates(responseBody);
-                } else {
-                    logger.warn("Batch moment processing failed, status: {}, response: {}",
-                            statusCode, responseBody);
-                }
-            }
+        if (momentsList.isEmpty()) {
+            logger.warn("No valid moments found for batch processing");
+            return CompletableFuture.completedFuture(null);
+        }
 
+        batchRequest.put("moments", momentsList);
+        String jsonRequest;
+        try {
+            jsonRequest = objectMapper.writeValueAsString(batchRequest);
         } catch (Exception e) {
-            logger.error("Error processing moments batch, error: {}", e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
         }
+
+        logger.info("Calling face tagging service for batch processing: {} moments", momentsList.size());
+
+        return postJson("/api/v1/face-embeddings/moments/batch", jsonRequest, false)
+                .thenAcceptAsync(response -> {
+                    int statusCode = response.getCode();
+
+                    if (statusCode >= 200 && statusCode < 300) {
+                        try {
+                            applyBatchFaceTaggingStorageUpdates(momentsList.size(), response.getBodyBytes());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new CompletionException(e);
+                        } catch (IOException | ExecutionException e) {
+                            logger.warn("Face-tagging storage write-back failed: {}", e.getMessage());
+                            throw new CompletionException(e);
+                        }
+                    } else {
+                        logger.warn("Batch moment processing failed, status: {}, response: {}",
+                                statusCode, snippet(response));
+                        throw new IllegalStateException("Face tagging service returned HTTP " + statusCode);
+                    }
+                }, taskExecutor);
     }
 
     /**
-     * Asynchronously process multiple moments in batch for face tagging
-     * This method runs in background and won't block the main moment creation
-     * process
+     * Every call goes through {@link FaceTaggingServiceGuard}; 5xx and 429 answers count as failures there.
+     * {@code interactive} calls (a user is waiting) may use the slots background batches leave free.
      */
-    @Async("taskExecutor")
-    public CompletableFuture<Void> processMomentsBatchAsync(List<Moment> moments) {
-        processMomentsBatchSync(moments);
-        return CompletableFuture.completedFuture(null);
+    private CompletableFuture<SimpleHttpResponse> postJson(String path, String json, boolean interactive) {
+        return guard.call(() -> execute(path, json),
+                response -> response.getCode() >= 500 || response.getCode() == 429, interactive);
     }
 
-    /**
-     * Persists optimised/thumbnail URLs and byte sizes returned by the face-tagging batch API.
-     * Accepts several JSON shapes, e.g. {@code results}, {@code moments}, or {@code data} arrays
-     * with objects containing {@code moment_id}, {@code feed_url} / {@code optimised_url},
-     * {@code thumbnail_url}, and size fields such as {@code optimised_size_bytes},
-     * {@code thumbnail_size_bytes}.
-     */
-    private void applyBatchFaceTaggingStorageUpdates(String responseBody) {
-        if (responseBody == null || responseBody.isBlank()) {
-            return;
-        }
-        try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode arr = pickResultsArray(root);
-            if (arr == null || !arr.isArray()) {
-                return;
+    private CompletableFuture<SimpleHttpResponse> execute(String path, String json) {
+        SimpleHttpRequest request = SimpleRequestBuilder.post(faceTaggingServiceUrl + path)
+                .setBody(json, ContentType.APPLICATION_JSON)
+                .build();
+        CompletableFuture<SimpleHttpResponse> future = new CompletableFuture<>();
+        httpAsyncClient.execute(request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                future.complete(response);
             }
-            for (JsonNode item : arr) {
-                if (item == null || !item.isObject()) {
-                    continue;
-                }
-                String momentId = textField(item, "moment_id", "momentId", "id");
-                if (momentId == null || momentId.isBlank()) {
-                    continue;
-                }
-                String feedUrl = textField(item, "feed_url", "feedUrl", "optimised_url", "optimisedUrl",
-                        "optimized_url", "optimizedUrl");
-                String thumbnailUrl = textField(item, "thumbnail_url", "thumbnailUrl");
-                Long optimisedSize = longField(item, "optimised_size_bytes", "optimisedImageSizeBytes",
-                        "optimized_size_bytes", "optimisedSizeBytes", "optimizedSizeBytes");
-                Long thumbnailSize = longField(item, "thumbnail_size_bytes", "thumbnailImageSizeBytes",
-                        "thumbnailSizeBytes");
-                if (feedUrl == null && thumbnailUrl == null && optimisedSize == null && thumbnailSize == null) {
-                    continue;
-                }
-                Moment before = null;
-                try {
-                    before = momentDao.getMomentById(momentId);
-                } catch (Exception ignored) {
-                    // moment missing — skip aggregate update
-                }
-                try {
-                    momentDao.updateMomentFaceTaggingStorage(momentId, feedUrl, thumbnailUrl, optimisedSize,
-                            thumbnailSize);
-                    if (before != null && before.getEventId() != null && !before.getEventId().isBlank()) {
-                        MomentMemoryUsage u = before.getMemoryUsage();
-                        long oldOpt = u == null ? 0L : nz(u.getOptimisedSizeBytes());
-                        long oldTh = u == null ? 0L : nz(u.getThumbnailSizeBytes());
-                        long newOpt = optimisedSize != null ? optimisedSize : oldOpt;
-                        long newTh = thumbnailSize != null ? thumbnailSize : oldTh;
-                        long dOpt = newOpt - oldOpt;
-                        long dTh = newTh - oldTh;
-                        if (dOpt != 0L || dTh != 0L) {
-                            try {
-                                eventDao.adjustAggregatedStorage(before.getEventId(), 0L, dOpt, dTh);
-                            } catch (Exception ex) {
-                                logger.warn("Event aggregate adjust after face-tagging failed: {}", ex.getMessage());
-                            }
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.warn("Face-tagging storage update interrupted for {}: {}", momentId, e.getMessage());
-                } catch (ExecutionException e) {
-                    logger.warn("Face-tagging storage update failed for {}: {}", momentId, e.getMessage());
-                } catch (RuntimeException e) {
-                    logger.debug("Face-tagging storage update skipped for {}: {}", momentId, e.getMessage());
-                }
+
+            @Override
+            public void failed(Exception ex) {
+                future.completeExceptionally(ex);
             }
-        } catch (Exception e) {
-            logger.warn("Could not parse face-tagging batch response for storage fields: {}", e.getMessage());
-        }
-    }
 
-    private static long nz(Long v) {
-        return v == null ? 0L : v;
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        return future;
     }
 
-    private static JsonNode pickResultsArray(JsonNode root) {
-        if (root == null) {
-            return null;
-        }
-        for (String key : new String[] { "results", "moments", "data", "processed_moments", "processedMoments" }) {
-            JsonNode n = root.get(key);
-            if (n != null && n.isArray()) {
-                return n;
-            }
-        }
-        if (root.isArray()) {
-            return root;
-        }
-        return null;
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 
-    private static String textField(JsonNode item, String... keys) {
-        for (String k : keys) {
-            JsonNode n = item.get(k);
-            if (n != null && n.isTextual()) {
-                String v = n.asText();
-                if (v != null && !v.isBlank()) {
-                    return v;
-                }
-            }
+    /**
+     * Persists optimised/thumbnail URLs and byte sizes returned by the face-tagging batch API, read with
+     * {@link FaceTaggingResponseParser#parseBatch} (see there for the accepted shapes). All moments are written in
+     * one batch, then one increment per event (see {@link MomentDao#applyFaceTaggingStorageUpdates}). An unreadable
+     * response or a failed write is thrown, so the job is retried rather than completed without its storage fields.
+     */
+    private void applyBatchFaceTaggingStorageUpdates(int requested, byte[] body)
+            throws IOException, ExecutionException, InterruptedException {
+        FaceTaggingResponseParser.BatchResponse parsed = FaceTaggingResponseParser.parseBatch(
+                objectMapper.getFactory(), body);
+        List<FaceTaggingStorageUpdate> updates = parsed.getStorageUpdates();
+        logger.info("Batch moment processing successful for {} moments: {} results, {} with storage fields",
+                requested, parsed.getResultCount(), updates.size());
+        if (updates.isEmpty()) {
+            return;
         }
-        return null;
+        int updated = momentDao.applyFaceTaggingStorageUpdates(updates);
+        logger.debug("Applied face-tagging storage fields to {} of {} moments", updated, updates.size());
     }
 
-    private static Long longField(JsonNode item, String... keys) {
-        for (String k : keys) {
-            if (!item.has(k) || item.get(k).isNull()) {
-                continue;
-            }
-            JsonNode n = item.get(k);
-            if (n.isNumber()) {
-                return n.longValue();
-            }
-            if (n.isTextual()) {
-                try {
-                    return Long.parseLong(n.asText().trim());
-                } catch (NumberFormatException ignored) {
-                    // try next key
-                }
-            }
+    /** Start of an error body for the log; a failed call's body is never parsed. */
+    private static String snippet(SimpleHttpResponse response) {
+        String body = response.getBodyText();
+        if (body == null || body.length() <= MAX_LOGGED_BODY_CHARS) {
+            return body;
         }
-        return null;
+        return body.substring(0, MAX_LOGGED_BODY_CHARS) + "... (" + body.length() + " chars)";
     }
 
 }
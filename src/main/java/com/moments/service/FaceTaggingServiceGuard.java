@@ -0,0 +1,227 @@
+package com.moments.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Circuit breaker plus adaptive concurrency limit around every call to the face-tagging service, so a cold-starting
+ * or overloaded service is failed fast instead of holding our threads for the full socket timeout.
+ * <p>
+ * Breaker: {@code failure-threshold} consecutive failures (errors, timeouts, 5xx or 429) open it for
+ * {@code open-ms}; then a single trial call is let through (half-open), which closes it on success or reopens it.
+ * Limit: gradient style. Each successful call scales the limit by {@code tolerance × minRtt / rtt} (between 0.5
+ * and 1) plus a √limit allowance for queueing, smoothed; a failed call multiplies it by {@code backoff-ratio}.
+ * Background calls (outbox batches) may only use the limit minus {@code interactive-reserve} (at least one), so
+ * interactive calls (selfies) still get through while the outbox saturates the service. Rejected calls fail with {@link RejectedException}; face-tagging jobs then stay leased and are retried by the
+ * outbox. Metrics: {@code moments.face-tagging.guard.*} under /actuator/metrics.
+ */
+@Component
+public class FaceTaggingServiceGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaceTaggingServiceGuard.class);
+
+    /** The minimum RTT is re-probed after this many samples, so a service that got slower for good is accepted. */
+    private static final int MIN_RTT_RESET_SAMPLES = 500;
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /** The call was not made: the breaker is open or the concurrency limit is reached. */
+    public static class RejectedException extends RuntimeException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${face.tagging.guard.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${face.tagging.guard.open-ms:30000}")
+    private long openMs;
+
+    @Value("${face.tagging.guard.limit.initial:10}")
+    private double initialLimit;
+
+    @Value("${face.tagging.guard.limit.min:1}")
+    private double minLimit;
+
+    /** No point above {@code face.tagging.http.max-connections-per-route}: extra calls would queue in the pool. */
+    @Value("${face.tagging.guard.limit.max:${face.tagging.http.max-connections-per-route:20}}")
+    private double maxLimit;
+
+    /** Slots of the limit that background calls leave free for interactive ones. */
+    @Value("${face.tagging.guard.interactive-reserve:2}")
+    private int interactiveReserve;
+
+    @Value("${face.tagging.guard.limit.tolerance:2.0}")
+    private double tolerance;
+
+    @Value("${face.tagging.guard.limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${face.tagging.guard.limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    // Guarded by this object's monitor
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private double limit;
+    private int inFlight;
+    private long minRttNanos;
+    private int samplesSinceReset;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        synchronized (this) {
+            limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        }
+        Gauge.builder("moments.face-tagging.guard.limit", this, FaceTaggingServiceGuard::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("moments.face-tagging.guard.in-flight", this, FaceTaggingServiceGuard::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("moments.face-tagging.guard.open", this, guard -> guard.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+        FunctionCounter.builder("moments.face-tagging.guard.rejected", rejected, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("moments.face-tagging.guard.failures", failures, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts {@code call} if the breaker and limit allow it, otherwise returns a future failed with
+     * {@link RejectedException}. The call counts as failed if it completes exceptionally or {@code isFailure}
+     * holds for its result.
+     *
+     * @param interactive true when a user is waiting on the call; only those may use the reserved slots
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call, Predicate<? super T> isFailure,
+            boolean interactive) {
+        Permit permit = tryAcquire(interactive);
+        if (permit == null) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedException(
+                    isOpen() ? "Face tagging service circuit is open" : "Face tagging concurrency limit reached"));
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            release(permit, false);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> release(permit, error == null && !isFailure.test(result)));
+    }
+
+    /** True while open calls are refused, so pollers can skip claiming work. */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openMs);
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private static final class Permit {
+        private final long startNanos;
+        private final boolean trial;
+
+        private Permit(long startNanos, boolean trial) {
+            this.startNanos = startNanos;
+            this.trial = trial;
+        }
+    }
+
+    private synchronized Permit tryAcquire(boolean interactive) {
+        long now = System.nanoTime();
+        boolean trial = false;
+        if (state == State.OPEN) {
+            if (now - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openMs)) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return null;
+            }
+            trialInFlight = true;
+            trial = true;
+        } else if (inFlight >= (interactive ? (int) limit : Math.max(1, (int) limit - interactiveReserve))) {
+            return null;
+        }
+        inFlight++;
+        return new Permit(now, trial);
+    }
+
+    private synchronized void release(Permit permit, boolean success) {
+        inFlight--;
+        long now = System.nanoTime();
+        if (success) {
+            consecutiveFailures = 0;
+            if (permit.trial) {
+                state = State.CLOSED;
+                trialInFlight = false;
+                logger.info("Face tagging service circuit closed");
+            }
+            onSample(now - permit.startNanos);
+            return;
+        }
+        failures.incrementAndGet();
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if (permit.trial) {
+            trialInFlight = false;
+            open(now);
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAtNanos = now;
+        consecutiveFailures = 0;
+        logger.warn("Face tagging service circuit open for {} ms (limit {})", openMs, String.format("%.1f", limit));
+    }
+
+    private void onSample(long rttNanos) {
+        if (minRttNanos == 0L || rttNanos < minRttNanos || ++samplesSinceReset >= MIN_RTT_RESET_SAMPLES) {
+            minRttNanos = Math.max(1L, rttNanos);
+            samplesSinceReset = 0;
+        }
+        // Only grow when the limit is what holds calls back, or it would climb without bound while idle
+        if (inFlight + 1 < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+}
@@ -1,38 +1,75 @@
 package com.moments.service;
 
+import com.google.api.gax.paging.Page;
 import com.google.cloud.ReadChannel;
 import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.HttpMethod;
 import com.google.cloud.storage.Storage;
 import com.moments.models.FileType;
 import com.moments.models.FileUploadResponse;
 import com.moments.models.Media;
+import com.moments.models.SignedUploadTarget;
+import com.moments.utils.ImageHeaderParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Service
 public class GoogleCloudStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleCloudStorageService.class);
 
-    /** Chunk size for GCS resumable uploads (avoids "Error writing request body" on large JPEGs). */
+    /**
+     * Chunk size for GCS resumable uploads (avoids "Error writing request body" on large JPEGs). Also used as the
+     * {@link WriteChannel} chunk size so the channel buffers one chunk instead of its 15 MiB default.
+     * Must be a multiple of 256 KiB.
+     */
     private static final int GCS_WRITE_CHUNK_BYTES = 256 * 1024;
 
+    /** Upper bound on idle read buffers kept for reuse by {@link #streamToResumableChannel}. */
+    private static final int MAX_POOLED_CHUNKS = 64;
+
+    /** Range size when reading image headers from GCS; covers JPEG EXIF/SOF and the HEIF meta box in most files. */
+    private static final int HEADER_READ_CHUNK_BYTES = 64 * 1024;
+
+    private static final String DIRECT_UPLOAD_ROOT = "direct-upload/";
+
+    private final ConcurrentLinkedQueue<byte[]> chunkPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledChunks = new AtomicInteger();
+
     @Autowired
     private Storage storage;
 
+    @Value("${gcp.storage.emulator-host:}")
+    private String emulatorHost;
+
     private final String bucketName = System.getProperty("gcp.bucket.name", "momentslive");
     private final String cdnDomain = System.getProperty("gcp.cdn.domain", "images.moments.live");
 
@@ -41,9 +78,107 @@ public class GoogleCloudStorageService {
      * so retries skip re-upload and {@link MomentService} can use a matching deterministic Firestore id.
      */
     public String driveImportObjectName(String eventId, String driveFileId) {
-        String e = sanitizeGcsPathSegment(eventId);
-        String f = sanitizeGcsPathSegment(driveFileId);
-        return "drive-import/" + e + "/" + f;
+        return driveImportPrefix(eventId) + sanitizeGcsPathSegment(driveFileId);
+    }
+
+    /** Common prefix of every {@link #driveImportObjectName} for the event. */
+    public String driveImportPrefix(String eventId) {
+        return "drive-import/" + sanitizeGcsPathSegment(eventId) + "/";
+    }
+
+    /** Names of all objects under {@code prefix}, listed page by page with only the name field requested. */
+    public Set<String> listObjectNames(String prefix) {
+        Set<String> names = new HashSet<>();
+        Page<Blob> page = storage.list(bucketName, Storage.BlobListOption.prefix(prefix),
+                Storage.BlobListOption.pageSize(1000), Storage.BlobListOption.fields(Storage.BlobField.NAME));
+        for (Blob blob : page.iterateAll()) {
+            names.add(blob.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Object name for a direct-to-bucket upload; the event and creator segments let finalize verify that an
+     * object was issued to the caller.
+     */
+    public String directUploadObjectName(String eventId, String creatorId, String uploadId) {
+        return directUploadPrefix(eventId, creatorId) + sanitizeGcsPathSegment(uploadId);
+    }
+
+    public String directUploadPrefix(String eventId, String creatorId) {
+        return DIRECT_UPLOAD_ROOT + sanitizeGcsPathSegment(eventId) + "/" + sanitizeGcsPathSegment(creatorId) + "/";
+    }
+
+    /** Common prefix of every {@link #directUploadObjectName}. */
+    public String directUploadRoot() {
+        return DIRECT_UPLOAD_ROOT;
+    }
+
+    /**
+     * Passes the names of objects under {@code prefix} created before {@code createdBeforeMillis} to
+     * {@code consumer}, one listing page at a time, so a large prefix is never held in memory.
+     */
+    public void forEachObjectPageCreatedBefore(String prefix, long createdBeforeMillis,
+            Consumer<List<String>> consumer) {
+        Page<Blob> page = storage.list(bucketName, Storage.BlobListOption.prefix(prefix),
+                Storage.BlobListOption.pageSize(1000),
+                Storage.BlobListOption.fields(Storage.BlobField.NAME, Storage.BlobField.TIME_CREATED));
+        while (page != null) {
+            List<String> names = new ArrayList<>();
+            for (Blob blob : page.getValues()) {
+                if (blob.getCreateTime() != null && blob.getCreateTime() < createdBeforeMillis) {
+                    names.add(blob.getName());
+                }
+            }
+            if (!names.isEmpty()) {
+                consumer.accept(names);
+            }
+            page = page.hasNextPage() ? page.getNextPage() : null;
+        }
+    }
+
+    /**
+     * Issues a URL that starts a resumable upload of {@code objectName} straight to the bucket. Against GCS this
+     * is a V4 signed POST whose {@code x-goog-resumable} and {@code Content-Type} headers are part of the
+     * signature; with {@code gcp.storage.emulator-host} set (e.g. fake-gcs-server) it is the emulator's unsigned
+     * JSON-API resumable endpoint.
+     */
+    public SignedUploadTarget signResumableUpload(String fileName, String objectName, String contentType,
+            long ttlMinutes) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", contentType);
+        if (emulatorHost != null && !emulatorHost.isBlank()) {
+            String url = emulatorHost.replaceAll("/+$", "") + "/upload/storage/v1/b/" + bucketName
+                    + "/o?uploadType=resumable&name="
+                    + java.net.URLEncoder.encode(objectName, java.nio.charset.StandardCharsets.UTF_8);
+            headers.put("X-Upload-Content-Type", contentType);
+            return new SignedUploadTarget(fileName, objectName, url, "POST", headers, expiresAt);
+        }
+        headers.put("x-goog-resumable", "start");
+        BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, objectName).setContentType(contentType).build();
+        URL url = storage.signUrl(blobInfo, ttlMinutes, TimeUnit.MINUTES,
+                Storage.SignUrlOption.httpMethod(HttpMethod.POST),
+                Storage.SignUrlOption.withExtHeaders(headers),
+                Storage.SignUrlOption.withV4Signature());
+        return new SignedUploadTarget(fileName, objectName, url.toString(), "POST", headers, expiresAt);
+    }
+
+    /** @return the object's metadata, or {@code null} if it does not exist */
+    public Blob getBlob(String objectName) {
+        if (objectName == null || objectName.isBlank()) {
+            return null;
+        }
+        Blob blob = storage.get(BlobId.of(bucketName, objectName));
+        return blob != null && blob.exists() ? blob : null;
+    }
+
+    public String publicUrlFor(String objectName) {
+        return String.format("https://%s/%s", cdnDomain, objectName);
+    }
+
+    public boolean deleteObject(String objectName) {
+        return storage.delete(BlobId.of(bucketName, objectName));
     }
 
     public boolean blobExists(String objectName) {
@@ -55,40 +190,16 @@ public class GoogleCloudStorageService {
     }
 
     /**
-     * Reads up to {@code maxPrefixBytes} from the start of an image object for dimension probing.
+     * Parses the header of an image object, streaming only as far as the parser reads (one
+     * {@value #HEADER_READ_CHUNK_BYTES}-byte range request for most files) instead of downloading it.
      *
-     * @return {@code null} if the object is missing
+     * @return null if the format is not recognised
      */
-    public ExistingImageBlobHead readImageBlobHead(String objectName, int maxPrefixBytes) throws IOException {
-        if (objectName == null || objectName.isBlank()) {
-            return null;
-        }
-        Blob blob = storage.get(BlobId.of(bucketName, objectName));
-        if (blob == null || !blob.exists()) {
-            return null;
-        }
-        long size = blob.getSize() != null ? blob.getSize() : 0L;
-        String contentType = blob.getContentType();
-        if (contentType == null || contentType.isBlank()) {
-            contentType = "image/jpeg";
+    public ImageHeaderParser.ImageHeader readImageHeader(Blob blob) throws IOException {
+        try (ReadChannel reader = blob.reader()) {
+            reader.setChunkSize(HEADER_READ_CHUNK_BYTES);
+            return ImageHeaderParser.parse(Channels.newInputStream(reader));
         }
-        String publicURL = String.format("https://%s/%s", cdnDomain, blob.getName());
-        int cap = (size > 0L && maxPrefixBytes > 0) ? (int) Math.min(size, (long) maxPrefixBytes) : 0;
-        byte[] prefix = cap > 0 ? new byte[cap] : new byte[0];
-        int prefixLen = 0;
-        if (cap > 0) {
-            try (ReadChannel reader = blob.reader()) {
-                ByteBuffer buffer = ByteBuffer.wrap(prefix);
-                while (buffer.hasRemaining()) {
-                    int n = reader.read(buffer);
-                    if (n < 0) {
-                        break;
-                    }
-                }
-                prefixLen = buffer.position();
-            }
-        }
-        return new ExistingImageBlobHead(objectName, contentType, publicURL, size, prefix, prefixLen);
     }
 
     /**
@@ -105,13 +216,13 @@ public class GoogleCloudStorageService {
         }
         BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, objectName)
                 .setContentType(contentType).build();
-        long written = streamToResumableChannel(blobInfo, in);
+        StreamedObject written = streamToResumableChannel(blobInfo, in);
         Blob blob = storage.get(blobInfo.getBlobId());
         if (blob == null || !blob.exists()) {
             throw new IOException("GCS object missing after upload: " + objectName);
         }
         String publicURL = String.format("https://%s/%s", cdnDomain, blob.getName());
-        return new FileUploadResponse(objectName, contentType, publicURL, written);
+        return uploaded(objectName, contentType, publicURL, written);
     }
 
     private static String sanitizeGcsPathSegment(String raw) {
@@ -125,55 +236,14 @@ public class GoogleCloudStorageService {
         return t.replaceAll("[^a-zA-Z0-9._-]", "_");
     }
 
-    public static final class ExistingImageBlobHead {
-        private final String objectName;
-        private final String contentType;
-        private final String publicUrl;
-        private final long sizeBytes;
-        private final byte[] prefix;
-        private final int prefixLength;
-
-        public ExistingImageBlobHead(String objectName, String contentType, String publicUrl, long sizeBytes,
-                byte[] prefix, int prefixLength) {
-            this.objectName = objectName;
-            this.contentType = contentType;
-            this.publicUrl = publicUrl;
-            this.sizeBytes = sizeBytes;
-            this.prefix = prefix != null ? prefix : new byte[0];
-            this.prefixLength = prefixLength;
-        }
-
-        public String getObjectName() {
-            return objectName;
-        }
-
-        public String getContentType() {
-            return contentType;
-        }
-
-        public String getPublicUrl() {
-            return publicUrl;
-        }
-
-        public long getSizeBytes() {
-            return sizeBytes;
-        }
-
-        public byte[] getPrefix() {
-            return prefix;
-        }
-
-        public int getPrefixLength() {
-            return prefixLength;
-        }
-    }
-
+    /**
+     * Streams the multipart part into a resumable upload; heap use per upload is one chunk, not the file size.
+     */
     public FileUploadResponse uploadFile(MultipartFile file, FileType fileType) throws IOException {
         String originalFilename = file.getOriginalFilename();
         String blobName =  originalFilename+Math.random() ;
         
         // Upload file as-is without compression
-        byte[] fileBytes = file.getBytes();
         String contentType = file.getContentType();
         
         // Set default content type if not provided
@@ -187,24 +257,18 @@ public class GoogleCloudStorageService {
         BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, blobName)
                 .setContentType(contentType).build();
 
-        Blob blob = uploadWithResumableChannel(blobInfo, fileBytes);
+        StreamedObject written;
+        try (InputStream in = file.getInputStream()) {
+            written = streamToResumableChannel(blobInfo, in);
+        }
+        Blob blob = storage.get(blobInfo.getBlobId());
+        if (blob == null || !blob.exists()) {
+            throw new IOException("GCS object missing after upload: " + blobInfo.getName());
+        }
 
         String publicURL = String.format("https://%s/%s", cdnDomain, blob.getName());
 
-        return new FileUploadResponse(blobName, contentType, publicURL, fileBytes.length);
-    }
-
-    public FileUploadResponse uploadBytes(byte[] fileBytes, String originalFilename, FileType fileType, String contentType) throws IOException {
-        String safeName = originalFilename != null ? originalFilename : "image";
-        String blobName = safeName.replaceAll("[^a-zA-Z0-9._-]", "_") + Math.random();
-        if (contentType == null || contentType.isBlank()) {
-            contentType = fileType == FileType.IMAGE ? "image/jpeg" : "video/mp4";
-        }
-        BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, blobName)
-                .setContentType(contentType).build();
-        Blob blob = uploadWithResumableChannel(blobInfo, fileBytes);
-        String publicURL = String.format("https://%s/%s", cdnDomain, blob.getName());
-        return new FileUploadResponse(blobName, contentType, publicURL, fileBytes.length);
+        return uploaded(blobName, contentType, publicURL, written);
     }
 
     /**
@@ -219,52 +283,80 @@ public class GoogleCloudStorageService {
         }
         BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, blobName)
                 .setContentType(contentType).build();
-        long written = streamToResumableChannel(blobInfo, in);
+        StreamedObject written = streamToResumableChannel(blobInfo, in);
         Blob blob = storage.get(blobInfo.getBlobId());
         if (blob == null || !blob.exists()) {
             throw new IOException("GCS object missing after upload: " + blobInfo.getName());
         }
         String publicURL = String.format("https://%s/%s", cdnDomain, blob.getName());
-        return new FileUploadResponse(blobName, contentType, publicURL, written);
+        return uploaded(blobName, contentType, publicURL, written);
     }
 
-    /**
-     * Uses a {@link WriteChannel} (resumable upload) instead of {@link Storage#create(BlobInfo, byte[])} so large
-     * images from Drive import do not fail with client errors such as "Error writing request body to server".
-     */
-    private Blob uploadWithResumableChannel(BlobInfo blobInfo, byte[] fileBytes) throws IOException {
-        try (WriteChannel writer = storage.writer(blobInfo)) {
-            ByteBuffer buf = ByteBuffer.wrap(fileBytes);
-            while (buf.hasRemaining()) {
-                int slice = Math.min(buf.remaining(), GCS_WRITE_CHUNK_BYTES);
-                int limit = buf.limit();
-                buf.limit(buf.position() + slice);
-                writer.write(buf);
-                buf.limit(limit);
-            }
-        }
-        Blob blob = storage.get(blobInfo.getBlobId());
-        if (blob == null || !blob.exists()) {
-            throw new IOException("GCS object missing after upload: " + blobInfo.getName());
-        }
-        return blob;
+    private static FileUploadResponse uploaded(String objectName, String contentType, String publicUrl,
+            StreamedObject written) {
+        FileUploadResponse response = new FileUploadResponse(objectName, contentType, publicUrl, written.sizeBytes);
+        response.setContentSha256(written.sha256);
+        return response;
     }
 
-    /** @return total bytes written */
-    private long streamToResumableChannel(BlobInfo blobInfo, InputStream in) throws IOException {
-        byte[] chunk = new byte[GCS_WRITE_CHUNK_BYTES];
+    /**
+     * Copies {@code in} to a resumable upload, feeding each chunk to a SHA-256 digest on the way so the content
+     * hash costs no second pass over the bytes.
+     */
+    private StreamedObject streamToResumableChannel(BlobInfo blobInfo, InputStream in) throws IOException {
+        byte[] chunk = borrowChunk();
+        MessageDigest sha256 = newSha256();
         long total = 0;
         try (WriteChannel writer = storage.writer(blobInfo)) {
+            writer.setChunkSize(GCS_WRITE_CHUNK_BYTES);
             int n;
             while ((n = in.read(chunk)) != -1) {
                 total += n;
+                sha256.update(chunk, 0, n);
                 ByteBuffer bb = ByteBuffer.wrap(chunk, 0, n);
                 while (bb.hasRemaining()) {
                     writer.write(bb);
                 }
             }
+        } finally {
+            returnChunk(chunk);
+        }
+        return new StreamedObject(total, HexFormat.of().formatHex(sha256.digest()));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class StreamedObject {
+        final long sizeBytes;
+        final String sha256;
+
+        StreamedObject(long sizeBytes, String sha256) {
+            this.sizeBytes = sizeBytes;
+            this.sha256 = sha256;
+        }
+    }
+
+    private byte[] borrowChunk() {
+        byte[] chunk = chunkPool.poll();
+        if (chunk == null) {
+            return new byte[GCS_WRITE_CHUNK_BYTES];
+        }
+        pooledChunks.decrementAndGet();
+        return chunk;
+    }
+
+    private void returnChunk(byte[] chunk) {
+        if (pooledChunks.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+            chunkPool.offer(chunk);
+        } else {
+            pooledChunks.decrementAndGet();
         }
-        return total;
     }
 
     /**
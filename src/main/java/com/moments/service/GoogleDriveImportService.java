@@ -1,7 +1,7 @@
 package com.moments.service;
 
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -9,18 +9,32 @@ import java.util.Iterator;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
-import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
@@ -29,6 +43,7 @@ import javax.imageio.stream.ImageInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -45,7 +60,10 @@ import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.storage.Blob;
+import com.moments.models.ContentHash;
 import com.moments.models.CreatorDetails;
+import com.moments.models.DriveImportCheckpoint;
 import com.moments.models.FileType;
 import com.moments.models.FileUploadResponse;
 import com.moments.models.GoogleDriveImportRequest;
@@ -56,6 +74,7 @@ import com.moments.models.Moment;
 import com.moments.models.MomentMemoryUsage;
 
 import com.moments.config.DriveImportProperties;
+import com.moments.utils.ImageHeaderParser;
 
 import jakarta.annotation.PostConstruct;
 
@@ -66,9 +85,19 @@ public class GoogleDriveImportService {
     private static final String PHOTOGRAPHER_ROLE = "Photographer";
     private static final int MAX_FILES = 5000;
     private static final int MAX_FOLDER_DEPTH = 12;
+    /** Drive's maximum page size for {@code files.list}; fewer round trips per folder. */
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final String FOLDER_MIME = "application/vnd.google-apps.folder";
     private static final int PROCESS_BATCH = 25;
+    /** How long the import thread waits for a finished file before checking the listing for new ones. */
+    private static final long LISTING_POLL_MS = 100;
+    /** Files checked per batched existence lookup. */
+    private static final int CHECK_BATCH = 100;
+    /** Files per stored listing snapshot chunk. */
+    private static final int LISTING_CHUNK_FILES = 1000;
     /** Bytes of file start kept for width/height probe; avoids loading the whole file into heap. */
     private static final int DRIVE_IMPORT_PREFIX_PROBE_BYTES = 512 * 1024;
+    private static final DateTimeFormatter EXIF_DATE_TIME = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
 
     private static final Pattern FOLDER_IN_PATH = Pattern.compile("/folders/([a-zA-Z0-9_-]+)");
     private static final Pattern FILE_IN_PATH = Pattern.compile("/file/d/([a-zA-Z0-9_-]+)");
@@ -102,6 +131,26 @@ public class GoogleDriveImportService {
     @Autowired
     private UploadRecordService uploadRecordService;
 
+    @Autowired
+    @Qualifier("driveCheckExecutor")
+    private Executor driveCheckExecutor;
+
+    @Autowired
+    @Qualifier("driveTransferExecutor")
+    private Executor driveTransferExecutor;
+
+    @Autowired
+    @Qualifier("driveListExecutor")
+    private Executor driveListExecutor;
+
+    /** Every Drive API request of every import goes through this shared, quota-adaptive limiter. */
+    @Autowired
+    private DriveApiRateLimiter driveRateLimiter;
+
+    /** Files of one import between the existence check and the moment write at any time. */
+    @Value("${google.drive.import.max-in-flight:32}")
+    private int maxInFlight;
+
     /** Same credentials as Firestore/Firebase (ADC on Cloud Run, classpath SA in local DEV). */
     @Autowired
     private GoogleCredentials googleCredentials;
@@ -170,10 +219,20 @@ public class GoogleDriveImportService {
         }
 
         DriveAccess access = createDriveAccess();
-        List<File> images = new ArrayList<>();
+        DriveImageListing listing = null;
         try {
-            resolveImagesFromPublicOrSharedLink(access, folderOrFileUrl.trim(), images);
-            return !images.isEmpty();
+            // One image is enough to answer; the listing stops as soon as it is found
+            listing = openImageListing(access, folderOrFileUrl.trim(), 1);
+            if (listing.take() != null) {
+                return true;
+            }
+            if (listing.getFailure() != null) {
+                throw listing.getFailure();
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while listing Drive link", e);
         } catch (IllegalArgumentException e) {
             throw e;
         } catch (GoogleJsonResponseException e) {
@@ -187,6 +246,10 @@ public class GoogleDriveImportService {
         } catch (IOException e) {
             // Treat metadata/list/download access failures as non-public/inaccessible link.
             return false;
+        } finally {
+            if (listing != null) {
+                listing.cancel();
+            }
         }
     }
 
@@ -276,11 +339,20 @@ public class GoogleDriveImportService {
             throw e;
         }
 
-        List<File> images = new ArrayList<>();
         String u = request.getFolderUrl() != null ? request.getFolderUrl().trim() : "";
 
+        ImportCheckpoint checkpoint = resumeFromCheckpoint(rid, eventId, u);
+        DriveImageListing listing;
         try {
-            resolveImagesFromPublicOrSharedLink(access, u, images);
+            if (checkpoint != null && checkpoint.listed == null) {
+                listing = new DriveImageListing(access.drive, access.supportsAllDrives, MAX_FILES,
+                        driveListExecutor, driveRateLimiter);
+                listing.resume(checkpoint.snapshot, checkpoint.completed, checkpoint.truncated);
+                logger.info("Drive import {} resuming from checkpoint: {} of {} file(s) already saved", rid,
+                        checkpoint.completed.cardinality(), listing.getFound());
+            } else {
+                listing = openImageListing(access, u, MAX_FILES);
+            }
         } catch (IOException e) {
             logger.warn("Drive resolve failed: {}", e.getMessage());
             String em = e.getMessage()
@@ -290,98 +362,54 @@ public class GoogleDriveImportService {
             return response;
         }
 
-        if (images.isEmpty()) {
-            response.getErrors().add("No image files found for this link.");
-            markUploadRecordFailed(rid, "No image files found for this link.");
-            return response;
-        }
-
-        response.setImageFilesFound(images.size());
-
-        if (images.size() > MAX_FILES) {
-            String msg = "Found " + images.size() + " images; maximum per import is " + MAX_FILES + ".";
-            response.getErrors().add(msg);
-            markUploadRecordFailed(rid, msg);
-            return response;
-        }
-
-        try {
-            uploadRecordService.afterDriveListing(rid, images.size());
-        } catch (Exception e) {
-            logger.warn("UploadRecord afterDriveListing: {}", e.getMessage());
-        }
-
         if (!rid.isEmpty() && uploadRecordService.isPauseRequested(rid)) {
+            listing.cancel();
             try {
                 uploadRecordService.acknowledgePause(rid, 0, 0);
             } catch (Exception e) {
                 logger.warn("UploadRecord acknowledgePause after listing: {}", e.getMessage());
             }
-            response.setImageFilesFound(images.size());
             response.setPaused(true);
             return response;
         }
 
         String userName = "Photographer";
 
-        int created = 0;
-        int failed = 0;
-        int skipped = 0;
-
         try {
-            for (int start = 0; start < images.size(); start += PROCESS_BATCH) {
-                int end = Math.min(start + PROCESS_BATCH, images.size());
-                List<Moment> batch = new ArrayList<>();
-                for (int i = start; i < end; i++) {
-                    File driveFile = images.get(i);
-                    try {
-                        DriveImportOutcome outcome = importDriveImageFile(access.drive, driveFile, eventId, creatorId,
-                                userName, access.supportsAllDrives);
-                        if (outcome.skippedDuplicate) {
-                            skipped++;
-                        } else if (outcome.moment != null) {
-                            batch.add(outcome.moment);
-                        }
-                    } catch (Exception e) {
-                        failed++;
-                        String msg = (driveFile.getName() != null ? driveFile.getName() : driveFile.getId()) + ": "
-                                + e.getMessage();
-                        logger.error("Drive import file failed: {}", msg);
-                        if (response.getErrors().size() < 25) {
-                            response.getErrors().add(msg);
-                        }
-                    }
-                }
-                if (!batch.isEmpty()) {
-                    List<String> ids = momentService.saveMoments(batch, false,
-                            driveImportProperties.isSynchronousFaceTaggingDuringDriveImport());
-                    created += ids.size();
-                }
+            ImportTotals totals = runImportPipeline(access, listing, eventId, creatorId, userName, rid, checkpoint,
+                    response);
+            response.setImageFilesFound(listing.getFound());
+            response.setMomentsCreated(totals.created);
+            response.setMomentsSkipped(totals.skipped);
+            response.setFailed(totals.failed);
+            if (listing.isTruncated()) {
+                response.getErrors().add("Found more than " + MAX_FILES + " images; only the first " + MAX_FILES
+                        + " were imported.");
+            }
+            if (totals.paused) {
                 try {
-                    uploadRecordService.updateDriveImportProgress(rid, created + skipped, failed);
+                    uploadRecordService.acknowledgePause(rid, totals.created + totals.skipped, totals.failed);
                 } catch (Exception e) {
-                    logger.warn("UploadRecord progress: {}", e.getMessage());
-                }
-                if (!rid.isEmpty() && uploadRecordService.isPauseRequested(rid)) {
-                    try {
-                        uploadRecordService.acknowledgePause(rid, created + skipped, failed);
-                    } catch (Exception e) {
-                        logger.warn("UploadRecord acknowledgePause: {}", e.getMessage());
-                    }
-                    response.setImageFilesFound(images.size());
-                    response.setMomentsCreated(created);
-                    response.setMomentsSkipped(skipped);
-                    response.setFailed(failed);
-                    response.setPaused(true);
-                    return response;
+                    logger.warn("UploadRecord acknowledgePause: {}", e.getMessage());
                 }
+                response.setPaused(true);
+                return response;
+            }
+            if (listing.getFailure() != null) {
+                String em = listing.getFailure().getMessage()
+                        + " Ensure the link is shared as \"Anyone with the link\" (Viewer) when using an API key.";
+                logger.warn("Drive listing failed after {} image(s): {}", listing.getFound(), em);
+                response.getErrors().add(em);
+                markUploadRecordFailed(rid, em);
+                return response;
+            }
+            if (listing.getFound() == 0) {
+                response.getErrors().add("No image files found for this link.");
+                markUploadRecordFailed(rid, "No image files found for this link.");
+                return response;
             }
-
-            response.setMomentsCreated(created);
-            response.setMomentsSkipped(skipped);
-            response.setFailed(failed);
             try {
-                uploadRecordService.markDriveImportDone(rid, created + skipped, failed);
+                uploadRecordService.markDriveImportDone(rid, totals.created + totals.skipped, totals.failed);
             } catch (Exception e) {
                 logger.warn("UploadRecord mark done: {}", e.getMessage());
             }
@@ -395,22 +423,428 @@ public class GoogleDriveImportService {
         }
     }
 
-    private void resolveImagesFromPublicOrSharedLink(DriveAccess access, String url, List<File> images)
-            throws IOException {
+    /**
+     * Staged import: existence checks run on {@code driveCheckExecutor}, the Drive download streamed into the GCS
+     * upload runs on {@code driveTransferExecutor}, and this thread writes finished moments in batches of
+     * {@link #PROCESS_BATCH} (which enqueues face tagging). Files are taken from {@code listing} as the folder walk
+     * discovers them. At most {@code google.drive.import.max-in-flight} files are between the first and last
+     * stage, so the stages overlap without unbounded queues. On a pause request no new files are started; files
+     * already in flight are drained and saved before returning. With a {@code checkpoint}, saved files are recorded
+     * with every progress update and the listing snapshot once the walk is finished (finishing it first on pause).
+     */
+    private ImportTotals runImportPipeline(DriveAccess access, DriveImageListing listing, String eventId,
+            String creatorId, String userName, String rid, ImportCheckpoint checkpoint,
+            GoogleDriveImportResponse response) throws ExecutionException, InterruptedException {
+        BlockingQueue<FileResult> results = new LinkedBlockingQueue<>();
+        ImportTotals totals = new ImportTotals();
+        List<Moment> batch = new ArrayList<>();
+        List<Integer> batchIndices = new ArrayList<>();
+        if (checkpoint != null) {
+            // Saved before this run; counted like files found to exist already
+            totals.skipped = checkpoint.completed.cardinality();
+        }
+        int inFlight = 0;
+        int sinceProgress = 0;
+        int limit = Math.max(1, maxInFlight);
+        boolean listed = false;
+        Set<String> copiedObjects = listCopiedObjects(eventId);
+        try {
+            while (inFlight > 0 || (!totals.paused && !listed)) {
+                while (!totals.paused && !listed && inFlight < limit) {
+                    // Block for the next file only when nothing is in flight; otherwise keep collecting results
+                    List<ListedFile> chunk = nextChunk(listing, Math.min(limit - inFlight, CHECK_BATCH),
+                            inFlight == 0);
+                    if (checkpoint != null) {
+                        checkpoint.record(chunk);
+                    }
+                    if (chunk.isEmpty()) {
+                        listed = listing.isExhausted();
+                        if (listed) {
+                            afterListing(rid, listing.getFound());
+                            checkpointListing(checkpoint, listing);
+                        }
+                        break;
+                    }
+                    submitToPipeline(access, chunk, eventId, creatorId, userName, copiedObjects, results);
+                    inFlight += chunk.size();
+                }
+                if (inFlight == 0) {
+                    continue;
+                }
+                FileResult result = results.poll(LISTING_POLL_MS, TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    continue;
+                }
+                inFlight--;
+                sinceProgress++;
+                if (result.error != null) {
+                    totals.failed++;
+                    String msg = (result.driveFile.getName() != null ? result.driveFile.getName()
+                            : result.driveFile.getId()) + ": " + result.error.getMessage();
+                    logger.error("Drive import file failed: {}", msg);
+                    if (response.getErrors().size() < 25) {
+                        response.getErrors().add(msg);
+                    }
+                } else if (result.outcome.skippedDuplicate) {
+                    totals.skipped++;
+                    if (checkpoint != null) {
+                        checkpoint.complete(result.index);
+                    }
+                } else if (result.outcome.moment != null) {
+                    batch.add(result.outcome.moment);
+                    batchIndices.add(result.index);
+                }
+                boolean drained = inFlight == 0 && (totals.paused || listed);
+                if (batch.size() < PROCESS_BATCH && sinceProgress < PROCESS_BATCH && !drained) {
+                    continue;
+                }
+                writeBatch(batch, totals);
+                if (checkpoint != null) {
+                    for (int index : batchIndices) {
+                        checkpoint.complete(index);
+                    }
+                    checkpointProgress(checkpoint);
+                }
+                batchIndices.clear();
+                sinceProgress = 0;
+                try {
+                    uploadRecordService.updateDriveImportProgress(rid, totals.created + totals.skipped,
+                            totals.failed);
+                } catch (Exception e) {
+                    logger.warn("UploadRecord progress: {}", e.getMessage());
+                }
+                if (!totals.paused && !listed && !rid.isEmpty() && uploadRecordService.isPauseRequested(rid)) {
+                    totals.paused = true;
+                    if (checkpoint == null || checkpoint.listed == null) {
+                        listing.cancel();
+                    }
+                    logger.info("Drive import pause requested for record {}; draining {} in-flight file(s)", rid,
+                            inFlight);
+                }
+            }
+            if (totals.paused && !listed && checkpoint != null && checkpoint.listed != null) {
+                // Let the walk finish so the resume can skip listing; it only lists, nothing is copied
+                List<ListedFile> rest;
+                while (!(rest = nextChunk(listing, CHECK_BATCH, true)).isEmpty()) {
+                    checkpoint.record(rest);
+                }
+                checkpointListing(checkpoint, listing);
+            }
+        } finally {
+            listing.cancel();
+        }
+        return totals;
+    }
+
+    private void afterListing(String rid, int found) {
+        try {
+            uploadRecordService.afterDriveListing(rid, found);
+        } catch (Exception e) {
+            logger.warn("UploadRecord afterDriveListing: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resume: a complete listing snapshot for this record, event and link replaces the folder walk, and files
+     * already saved are left out. Without one a fresh checkpoint is started (none without an upload record).
+     */
+    private ImportCheckpoint resumeFromCheckpoint(String rid, String eventId, String driveLink) {
+        if (rid.isEmpty()) {
+            return null;
+        }
+        try {
+            DriveImportCheckpoint saved = uploadRecordService.getDriveImportCheckpoint(rid);
+            if (saved == null) {
+                return ImportCheckpoint.fresh(rid, eventId, driveLink);
+            }
+            if (saved.isListingComplete() && eventId.equals(saved.getEventId())
+                    && driveLink.equals(saved.getDriveLink())) {
+                List<byte[]> chunks = uploadRecordService.getDriveImportListing(saved);
+                List<File> snapshot = chunks != null ? decodeListing(chunks) : null;
+                if (snapshot != null && snapshot.size() == saved.getFileCount()) {
+                    BitSet completed = saved.getCompleted() != null
+                            ? BitSet.valueOf(saved.getCompleted().toBytes())
+                            : new BitSet();
+                    return ImportCheckpoint.resumed(rid, snapshot, completed, saved.isListingTruncated());
+                }
+            }
+            // The walk never finished (or was for another link): its file numbers mean nothing to a new walk
+            uploadRecordService.deleteDriveImportCheckpoint(rid);
+            return ImportCheckpoint.fresh(rid, eventId, driveLink);
+        } catch (Exception e) {
+            logger.warn("Drive import {} checkpoint unusable; importing without one: {}", rid, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Stores the listing snapshot (with the progress so far) once the walk finished without error. */
+    private void checkpointListing(ImportCheckpoint checkpoint, DriveImageListing listing) {
+        if (checkpoint == null || checkpoint.listed == null || listing.getFailure() != null
+                || listing.getFound() == 0) {
+            return;
+        }
+        try {
+            checkpointProgress(checkpoint);
+            DriveImportCheckpoint saved = new DriveImportCheckpoint();
+            saved.setUploadRecordId(checkpoint.rid);
+            saved.setEventId(checkpoint.eventId);
+            saved.setDriveLink(checkpoint.driveLink);
+            saved.setListingComplete(true);
+            saved.setListingTruncated(listing.isTruncated());
+            saved.setFileCount(checkpoint.listed.size());
+            uploadRecordService.saveDriveImportListing(saved, encodeListing(checkpoint.listed));
+        } catch (Exception e) {
+            logger.warn("Drive import {} listing checkpoint: {}", checkpoint.rid, e.getMessage());
+        }
+    }
+
+    private void checkpointProgress(ImportCheckpoint checkpoint) {
+        if (!checkpoint.dirty) {
+            return;
+        }
+        try {
+            uploadRecordService.saveDriveImportProgress(checkpoint.rid, checkpoint.completed);
+            checkpoint.dirty = false;
+        } catch (Exception e) {
+            logger.warn("Drive import {} progress checkpoint: {}", checkpoint.rid, e.getMessage());
+        }
+    }
+
+    /** Gzipped JSON of {@link #LISTING_CHUNK_FILES} files per chunk, keeping each document well under 1 MiB. */
+    private static List<byte[]> encodeListing(List<File> files) throws IOException {
+        List<byte[]> chunks = new ArrayList<>();
+        for (int start = 0; start < files.size(); start += LISTING_CHUNK_FILES) {
+            List<File> slice = files.subList(start, Math.min(start + LISTING_CHUNK_FILES, files.size()));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(GsonFactory.getDefaultInstance().toByteArray(slice));
+            }
+            chunks.add(out.toByteArray());
+        }
+        return chunks;
+    }
+
+    private static List<File> decodeListing(List<byte[]> chunks) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (byte[] chunk : chunks) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(chunk))) {
+                files.addAll(GsonFactory.getDefaultInstance().createJsonParser(in, StandardCharsets.UTF_8)
+                        .parseArrayAndClose(ArrayList.class, File.class));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Checkpoint state of one run. Files are numbered in the order the walk found them; {@code completed} has a
+     * bit per file whose moment is saved (or already existed). {@code listed} collects the snapshot on a fresh
+     * run and is null on a resume, whose snapshot is already stored.
+     */
+    private static final class ImportCheckpoint {
+        final String rid;
+        final String eventId;
+        final String driveLink;
+        final BitSet completed;
+        final List<File> listed;
+        final List<File> snapshot;
+        final boolean truncated;
+        /** Bits set since the last progress write. */
+        boolean dirty;
+
+        private ImportCheckpoint(String rid, String eventId, String driveLink, BitSet completed, List<File> listed,
+                List<File> snapshot, boolean truncated) {
+            this.rid = rid;
+            this.eventId = eventId;
+            this.driveLink = driveLink;
+            this.completed = completed;
+            this.listed = listed;
+            this.snapshot = snapshot;
+            this.truncated = truncated;
+        }
+
+        static ImportCheckpoint fresh(String rid, String eventId, String driveLink) {
+            return new ImportCheckpoint(rid, eventId, driveLink, new BitSet(), new ArrayList<>(), null, false);
+        }
+
+        static ImportCheckpoint resumed(String rid, List<File> snapshot, BitSet completed, boolean truncated) {
+            return new ImportCheckpoint(rid, null, null, completed, null, snapshot, truncated);
+        }
+
+        void record(List<ListedFile> chunk) {
+            if (listed == null) {
+                return;
+            }
+            for (ListedFile f : chunk) {
+                while (listed.size() <= f.index) {
+                    listed.add(null);
+                }
+                listed.set(f.index, f.file);
+            }
+        }
+
+        void complete(int index) {
+            completed.set(index);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Pre-flight: one listing of the event's Drive-import prefix replaces a GCS metadata call per file. Returns
+     * null (per-file checks) if the listing fails.
+     */
+    private Set<String> listCopiedObjects(String eventId) {
+        try {
+            return storageService.listObjectNames(storageService.driveImportPrefix(eventId));
+        } catch (RuntimeException e) {
+            logger.warn("Could not list Drive-import objects for event {}; checking per file: {}", eventId,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<ListedFile> nextChunk(DriveImageListing listing, int max, boolean block)
+            throws InterruptedException {
+        List<ListedFile> chunk = new ArrayList<>();
+        ListedFile f = block ? listing.take() : listing.poll();
+        while (f != null) {
+            chunk.add(f);
+            if (chunk.size() >= max) {
+                break;
+            }
+            f = listing.poll();
+        }
+        return chunk;
+    }
+
+    /** Checks a chunk of files together, then hands each file that needs copying to the transfer stage. */
+    private void submitToPipeline(DriveAccess access, List<ListedFile> chunk, String eventId, String creatorId,
+            String userName, Set<String> copiedObjects, BlockingQueue<FileResult> results) {
+        List<File> files = new ArrayList<>(chunk.size());
+        for (ListedFile f : chunk) {
+            files.add(f.file);
+        }
+        try {
+            CompletableFuture
+                    .supplyAsync(() -> {
+                        try {
+                            return checkDriveImageFiles(files, eventId, copiedObjects);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, driveCheckExecutor)
+                    .whenComplete((checks, error) -> {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            if (error != null) {
+                                results.add(new FileResult(chunk.get(i), null, unwrap(error)));
+                            } else {
+                                submitTransfer(access, chunk.get(i), checks.get(i), eventId, creatorId, userName,
+                                        results);
+                            }
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // Executor rejected the task; count the files as failed rather than stalling the pipeline
+            for (ListedFile listed : chunk) {
+                results.add(new FileResult(listed, null, e));
+            }
+        }
+    }
+
+    private void submitTransfer(DriveAccess access, ListedFile listed, DriveImportCheck check, String eventId,
+            String creatorId, String userName, BlockingQueue<FileResult> results) {
+        if (check.skip) {
+            results.add(new FileResult(listed, new DriveImportOutcome(null, true), null));
+            return;
+        }
+        File driveFile = listed.file;
+        try {
+            CompletableFuture
+                    .supplyAsync(() -> {
+                        try {
+                            return new DriveImportOutcome(transferDriveImageFile(access.drive, driveFile, check,
+                                    eventId, creatorId, userName, access.supportsAllDrives), false);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, driveTransferExecutor)
+                    .whenComplete((outcome, error) -> results.add(new FileResult(listed, outcome, unwrap(error))));
+        } catch (RuntimeException e) {
+            results.add(new FileResult(listed, null, e));
+        }
+    }
+
+    private void writeBatch(List<Moment> batch, ImportTotals totals) throws ExecutionException, InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> ids = momentService.saveMoments(new ArrayList<>(batch), false,
+                driveImportProperties.isSynchronousFaceTaggingDuringDriveImport());
+        totals.created += ids.size();
+        batch.clear();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private static final class ImportTotals {
+        int created;
+        int skipped;
+        int failed;
+        boolean paused;
+    }
+
+    private static final class FileResult {
+        final File driveFile;
+        /** Number of the file in the walk (its checkpoint bit). */
+        final int index;
+        final DriveImportOutcome outcome;
+        final Throwable error;
+
+        FileResult(ListedFile listed, DriveImportOutcome outcome, Throwable error) {
+            this.driveFile = listed.file;
+            this.index = listed.index;
+            this.outcome = outcome;
+            this.error = error;
+        }
+    }
+
+    /** An image from the walk and its number, assigned in the order images were found. */
+    private static final class ListedFile {
+        final int index;
+        final File file;
+
+        ListedFile(int index, File file) {
+            this.index = index;
+            this.file = file;
+        }
+    }
+
+    /**
+     * Starts listing the images behind a Drive link. A file link resolves immediately; a folder link is walked in
+     * the background by a {@link DriveImageListing}, which stops after {@code maxFiles} images.
+     */
+    private DriveImageListing openImageListing(DriveAccess access, String url, int maxFiles) throws IOException {
+        DriveImageListing listing = new DriveImageListing(access.drive, access.supportsAllDrives, maxFiles,
+                driveListExecutor, driveRateLimiter);
         String fileViewId = extractFileViewId(url);
         if (fileViewId != null) {
-            appendIfImageFile(access.drive, fileViewId, access.supportsAllDrives, images);
-            return;
+            listing.complete(Collections.singletonList(fetchImageFile(access.drive, fileViewId,
+                    access.supportsAllDrives)));
+            return listing;
         }
         String folderId = extractDriveFolderId(url);
         if (folderId != null) {
-            collectImageFiles(access.drive, folderId, 0, images, access.supportsAllDrives);
-            return;
+            listing.start(folderId);
+            return listing;
         }
         String openId = extractAnyIdParameter(url);
         if (openId != null) {
-            resolveIdAsFileOrFolder(access.drive, openId, access.supportsAllDrives, images);
-            return;
+            resolveIdAsFileOrFolder(access.drive, openId, access.supportsAllDrives, listing);
+            return listing;
         }
         throw new IllegalArgumentException("Could not parse a Google Drive folder or file link.");
     }
@@ -497,34 +931,37 @@ public class GoogleDriveImportService {
 
     private File fetchMetadata(Drive drive, String id, boolean supportsAllDrives) throws IOException {
         Drive.Files.Get get = drive.files().get(id)
-                .setFields("id, name, mimeType, modifiedTime, shortcutDetails, imageMediaMetadata/time");
+                .setFields("id, name, mimeType, modifiedTime, size, sha256Checksum, shortcutDetails, imageMediaMetadata/time");
         if (supportsAllDrives) {
             get.setSupportsAllDrives(true);
         }
-        return get.execute();
+        return driveRateLimiter.call(get::execute);
     }
 
-    private void appendIfImageFile(Drive drive, String fileId, boolean supportsAllDrives, List<File> out)
-            throws IOException {
+    private File fetchImageFile(Drive drive, String fileId, boolean supportsAllDrives) throws IOException {
         File meta = fetchMetadata(drive, fileId, supportsAllDrives);
+        List<File> out = new ArrayList<>(1);
         if (!addDriveFileAsImageIfSupported(meta, out)) {
             throw new IOException("Not an image file (mime: " + meta.getMimeType() + ").");
         }
+        return out.get(0);
     }
 
-    private void resolveIdAsFileOrFolder(Drive drive, String id, boolean supportsAllDrives, List<File> out)
+    private void resolveIdAsFileOrFolder(Drive drive, String id, boolean supportsAllDrives, DriveImageListing listing)
             throws IOException {
         File meta = fetchMetadata(drive, id, supportsAllDrives);
-        if ("application/vnd.google-apps.folder".equals(meta.getMimeType())) {
-            collectImageFiles(drive, id, 0, out, supportsAllDrives);
+        if (FOLDER_MIME.equals(meta.getMimeType())) {
+            listing.start(id);
             return;
         }
+        List<File> out = new ArrayList<>(1);
         if (!addDriveFileAsImageIfSupported(meta, out)) {
             throw new IOException("Link is not a folder or image file.");
         }
+        listing.complete(out);
     }
 
-    private boolean addDriveFileAsImageIfSupported(File meta, List<File> out) {
+    private static boolean addDriveFileAsImageIfSupported(File meta, List<File> out) {
         String mt = meta.getMimeType();
         if (mt != null && mt.startsWith("image/")) {
             out.add(meta);
@@ -546,52 +983,184 @@ public class GoogleDriveImportService {
         return false;
     }
 
-    private void collectImageFiles(Drive drive, String folderId, int depth, List<File> out, boolean supportsAllDrives)
-            throws IOException {
-        if (depth > MAX_FOLDER_DEPTH) {
-            return;
+    /**
+     * Breadth-first walk of a Drive folder tree on {@code driveListExecutor}. Every folder is listed as its own
+     * task, so sibling folders are paged concurrently, and images are queued for the consumer as soon as their page
+     * arrives instead of after the whole tree is listed. Honours {@link #MAX_FOLDER_DEPTH}; stops (and reports
+     * {@link #isTruncated()}) once {@code maxFiles} images were found. The first listing error cancels the walk.
+     */
+    private static final class DriveImageListing {
+        /** Queued after the last folder task finishes; never handed to the consumer. */
+        private static final ListedFile END = new ListedFile(-1, null);
+
+        private final Drive drive;
+        private final boolean supportsAllDrives;
+        private final int maxFiles;
+        private final Executor executor;
+        private final DriveApiRateLimiter rateLimiter;
+        private final BlockingQueue<ListedFile> discovered = new LinkedBlockingQueue<>();
+        private final AtomicInteger pendingFolders = new AtomicInteger();
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicReference<IOException> failure = new AtomicReference<>();
+        private volatile boolean cancelled;
+        private volatile boolean truncated;
+        /** Consumer side only. */
+        private boolean exhausted;
+
+        DriveImageListing(Drive drive, boolean supportsAllDrives, int maxFiles, Executor executor,
+                DriveApiRateLimiter rateLimiter) {
+            this.drive = drive;
+            this.supportsAllDrives = supportsAllDrives;
+            this.maxFiles = maxFiles;
+            this.executor = executor;
+            this.rateLimiter = rateLimiter;
         }
-        String pageToken = null;
-        do {
-            Drive.Files.List req = drive.files().list()
-                    .setQ("'" + folderId + "' in parents and trashed = false")
-                    .setSpaces("drive")
-                    .setFields(
-                            "nextPageToken, files(id, name, mimeType, modifiedTime, shortcutDetails, imageMediaMetadata/time)")
-                    .setPageToken(pageToken)
-                    .setPageSize(100);
-            if (supportsAllDrives) {
-                req.setSupportsAllDrives(true).setIncludeItemsFromAllDrives(true);
+
+        void start(String rootFolderId) {
+            submitFolder(rootFolderId, 0);
+        }
+
+        /** For links that resolve to files directly: the listing holds exactly these. */
+        void complete(List<File> files) {
+            for (File f : files) {
+                offer(f);
             }
-            FileList result = req.execute();
+            discovered.add(END);
+        }
 
-            List<File> files = result.getFiles();
-            if (files != null) {
-                for (File f : files) {
-                    String mt = f.getMimeType();
-                    if (mt == null) {
-                        continue;
+        /**
+         * For resumed imports: the listing is the stored snapshot (numbered by position) minus the files in
+         * {@code completed}; {@link #getFound()} still counts the whole snapshot.
+         */
+        void resume(List<File> snapshot, BitSet completed, boolean wasTruncated) {
+            found.set(snapshot.size());
+            truncated = wasTruncated;
+            for (int i = completed.nextClearBit(0); i < snapshot.size(); i = completed.nextClearBit(i + 1)) {
+                discovered.add(new ListedFile(i, snapshot.get(i)));
+            }
+            discovered.add(END);
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        /** Next image, waiting for the walk if needed; null once every folder has been listed. */
+        ListedFile take() throws InterruptedException {
+            return exhausted ? null : unwrap(discovered.take());
+        }
+
+        /** Next image if one is ready, else null (see {@link #isExhausted()}). */
+        ListedFile poll() {
+            return exhausted ? null : unwrap(discovered.poll());
+        }
+
+        boolean isExhausted() {
+            return exhausted;
+        }
+
+        int getFound() {
+            return found.get();
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        IOException getFailure() {
+            return failure.get();
+        }
+
+        private ListedFile unwrap(ListedFile f) {
+            if (f == END) {
+                exhausted = true;
+                return null;
+            }
+            return f;
+        }
+
+        private void submitFolder(String folderId, int depth) {
+            pendingFolders.incrementAndGet();
+            try {
+                executor.execute(() -> listFolder(folderId, depth));
+            } catch (RuntimeException e) {
+                fail(new IOException("Could not schedule Drive folder listing: " + e.getMessage(), e));
+                folderDone();
+            }
+        }
+
+        private void listFolder(String folderId, int depth) {
+            try {
+                String pageToken = null;
+                do {
+                    if (cancelled) {
+                        return;
                     }
-                    if ("application/vnd.google-apps.folder".equals(mt)) {
-                        collectImageFiles(drive, f.getId(), depth + 1, out, supportsAllDrives);
-                    } else if ("application/vnd.google-apps.shortcut".equals(mt) && f.getShortcutDetails() != null) {
-                        File.ShortcutDetails sd = f.getShortcutDetails();
-                        String targetMime = sd.getTargetMimeType();
-                        if (targetMime != null && targetMime.startsWith("image/")) {
-                            File synthetic = new File();
-                            synthetic.setId(sd.getTargetId());
-                            synthetic.setName(f.getName() != null ? f.getName() : sd.getTargetId());
-                            synthetic.setMimeType(targetMime);
-                            synthetic.setModifiedTime(f.getModifiedTime());
-                            out.add(synthetic);
+                    Drive.Files.List req = drive.files().list()
+                            .setQ("'" + folderId + "' in parents and trashed = false")
+                            .setSpaces("drive")
+                            .setFields("nextPageToken, files(id, name, mimeType, modifiedTime, size, sha256Checksum, "
+                                    + "shortcutDetails, imageMediaMetadata/time)")
+                            .setPageToken(pageToken)
+                            .setPageSize(LIST_PAGE_SIZE);
+                    if (supportsAllDrives) {
+                        req.setSupportsAllDrives(true).setIncludeItemsFromAllDrives(true);
+                    }
+                    FileList result = rateLimiter.call(req::execute);
+                    List<File> files = result.getFiles();
+                    if (files != null) {
+                        List<File> images = new ArrayList<>();
+                        for (File f : files) {
+                            if (FOLDER_MIME.equals(f.getMimeType())) {
+                                if (depth < MAX_FOLDER_DEPTH && !cancelled) {
+                                    submitFolder(f.getId(), depth + 1);
+                                }
+                            } else {
+                                addDriveFileAsImageIfSupported(f, images);
+                            }
+                        }
+                        for (File image : images) {
+                            if (!offer(image)) {
+                                return;
+                            }
                         }
-                    } else if (mt.startsWith("image/")) {
-                        out.add(f);
                     }
-                }
+                    pageToken = result.getNextPageToken();
+                } while (pageToken != null);
+            } catch (IOException e) {
+                fail(e);
+            } catch (RuntimeException e) {
+                fail(new IOException(e.getMessage(), e));
+            } finally {
+                folderDone();
+            }
+        }
+
+        private boolean offer(File image) {
+            if (cancelled) {
+                return false;
             }
-            pageToken = result.getNextPageToken();
-        } while (pageToken != null);
+            int count = found.incrementAndGet();
+            if (count > maxFiles) {
+                found.decrementAndGet();
+                truncated = true;
+                cancelled = true;
+                return false;
+            }
+            discovered.add(new ListedFile(count - 1, image));
+            return true;
+        }
+
+        private void fail(IOException e) {
+            failure.compareAndSet(null, e);
+            cancelled = true;
+        }
+
+        private void folderDone() {
+            if (pendingFolders.decrementAndGet() == 0) {
+                discovered.add(END);
+            }
+        }
     }
 
     /**
@@ -612,34 +1181,96 @@ public class GoogleDriveImportService {
         }
     }
 
-    private DriveImportOutcome importDriveImageFile(Drive drive, File driveFile, String eventId, String creatorId,
-            String userName, boolean supportsAllDrives) throws IOException, ExecutionException, InterruptedException {
-        String blobName = storageService.driveImportObjectName(eventId, driveFile.getId());
-        String momentId = deterministicDriveMomentId(eventId, driveFile.getId());
-
-        if (momentService.momentExists(momentId)) {
-            logger.debug("Drive import skip: moment already exists id={} driveFile={}", momentId, driveFile.getId());
-            return new DriveImportOutcome(null, true);
+    /**
+     * Pipeline stage 1: decides per file whether any bytes need to move, with batched lookups (one {@code getAll}
+     * for moment ids, one for content hashes) and the pre-listed set of copied objects instead of per-file calls.
+     *
+     * @return one check per file, in order
+     */
+    private List<DriveImportCheck> checkDriveImageFiles(List<File> files, String eventId, Set<String> copiedObjects)
+            throws ExecutionException, InterruptedException {
+        List<String> momentIds = new ArrayList<>(files.size());
+        List<String> hashes = new ArrayList<>();
+        for (File driveFile : files) {
+            momentIds.add(deterministicDriveMomentId(eventId, driveFile.getId()));
+            String sha = driveSha256(driveFile);
+            if (sha != null) {
+                hashes.add(sha);
+            }
+        }
+        Set<String> existingMoments = momentService.findExistingMomentIds(momentIds);
+        Map<String, ContentHash> indexed = hashes.isEmpty() ? Collections.emptyMap()
+                : momentService.findByContentHashes(eventId, hashes);
+
+        List<DriveImportCheck> checks = new ArrayList<>(files.size());
+        long skippedDuplicates = 0L;
+        long bytesSaved = 0L;
+        for (int i = 0; i < files.size(); i++) {
+            File driveFile = files.get(i);
+            String momentId = momentIds.get(i);
+            if (existingMoments.contains(momentId)) {
+                logger.debug("Drive import skip: moment already exists id={} driveFile={}", momentId,
+                        driveFile.getId());
+                checks.add(DriveImportCheck.SKIP);
+                continue;
+            }
+            // Drive reports the file's SHA-256, so a re-import of bytes already in the event is skipped before download
+            String sha = driveSha256(driveFile);
+            ContentHash existing = sha != null ? indexed.get(sha) : null;
+            if (existing != null) {
+                logger.debug("Drive import skip: content of driveFile={} already stored as moment {}",
+                        driveFile.getId(), existing.getMomentId());
+                skippedDuplicates++;
+                bytesSaved += driveFile.getSize() != null ? driveFile.getSize() : 0L;
+                checks.add(DriveImportCheck.SKIP);
+                continue;
+            }
+            String blobName = storageService.driveImportObjectName(eventId, driveFile.getId());
+            boolean copied = copiedObjects != null ? copiedObjects.contains(blobName)
+                    : storageService.blobExists(blobName);
+            checks.add(new DriveImportCheck(momentId, blobName, sha, copied));
         }
+        // One counter write per chunk rather than one per skipped file
+        momentService.recordSkippedDuplicates(eventId, skippedDuplicates, bytesSaved);
+        return checks;
+    }
+
+    /** Lower-case hex SHA-256 reported by Drive, or null. */
+    private static String driveSha256(File driveFile) {
+        String sha = driveFile.getSha256Checksum();
+        return sha != null && !sha.isBlank() ? sha.toLowerCase() : null;
+    }
 
+    /**
+     * Pipeline stage 2: streams the Drive download straight into the GCS upload (or reuses the object an earlier
+     * run already copied) and builds the moment to save.
+     */
+    private Moment transferDriveImageFile(Drive drive, File driveFile, DriveImportCheck check, String eventId,
+            String creatorId, String userName, boolean supportsAllDrives) throws IOException {
+        String blobName = check.blobName;
+        String momentId = check.momentId;
+        String driveSha256 = check.driveSha256;
         FileUploadResponse uploaded;
-        int[] wh;
+        ImageHeaderParser.ImageHeader header;
 
-        if (storageService.blobExists(blobName)) {
-            GoogleCloudStorageService.ExistingImageBlobHead head = storageService.readImageBlobHead(blobName,
-                    DRIVE_IMPORT_PREFIX_PROBE_BYTES);
-            if (head == null || head.getSizeBytes() <= 0L) {
+        if (check.blobExists) {
+            Blob blob = storageService.getBlob(blobName);
+            long existingSize = blob != null && blob.getSize() != null ? blob.getSize() : 0L;
+            if (existingSize <= 0L) {
                 throw new IOException("GCS object missing or empty: " + blobName);
             }
-            uploaded = new FileUploadResponse(head.getObjectName(), head.getContentType(), head.getPublicUrl(),
-                    head.getSizeBytes());
-            wh = readImageDimensionsFromPrefix(head.getPrefix(), head.getPrefixLength());
+            String contentType = blob.getContentType() != null && !blob.getContentType().isBlank()
+                    ? blob.getContentType() : "image/jpeg";
+            uploaded = new FileUploadResponse(blobName, contentType, storageService.publicUrlFor(blobName),
+                    existingSize);
+            uploaded.setContentSha256(driveSha256);
+            header = storageService.readImageHeader(blob);
         } else {
             Drive.Files.Get getReq = drive.files().get(driveFile.getId());
             if (supportsAllDrives) {
                 getReq.setSupportsAllDrives(true);
             }
-            HttpResponse mediaResp = getReq.executeMedia();
+            HttpResponse mediaResp = driveRateLimiter.call(getReq::executeMedia);
             InputStream raw = mediaResp.getContent();
             if (raw == null) {
                 mediaResp.disconnect();
@@ -653,7 +1284,7 @@ public class GoogleDriveImportService {
                 if (sizeBytes == 0L) {
                     throw new IOException("Uploaded object has zero size: " + blobName);
                 }
-                wh = readImageDimensionsFromPrefix(capturing.getPrefixBuffer(), capturing.getPrefixLength());
+                header = readImageHeaderFromPrefix(capturing.getPrefixBuffer(), capturing.getPrefixLength());
             } finally {
                 mediaResp.disconnect();
             }
@@ -663,10 +1294,11 @@ public class GoogleDriveImportService {
         if (sizeBytes == 0L) {
             throw new IOException("Resolved object has zero size: " + blobName);
         }
-        int width = wh[0];
-        int height = wh[1];
+        int width = header != null ? header.getDisplayWidth() : 0;
+        int height = header != null ? header.getDisplayHeight() : 0;
 
-        long creationTime = resolveBestCreationTime(driveFile);
+        Long exifTime = header != null ? header.getCaptureTimeMillis(ImageHeaderParser.DEFAULT_CAPTURE_ZONE) : null;
+        long creationTime = exifTime != null ? exifTime : resolveBestCreationTime(driveFile);
         long aspectRatio = height > 0 ? Math.round((width * 1000.0) / height) : 0;
 
         CreatorDetails details = new CreatorDetails();
@@ -689,12 +1321,34 @@ public class GoogleDriveImportService {
         moment.setCreatorDetails(details);
         moment.setMedia(media);
         moment.setAspectRatio(aspectRatio);
+        moment.setContentSha256(uploaded.getContentSha256());
+        // An object an earlier run copied may be reused, but is never deleted as a duplicate
+        moment.setUploadedInRequest(!check.blobExists);
 
         MomentMemoryUsage usage = new MomentMemoryUsage();
         usage.setOriginalUploadSizeBytes(sizeBytes);
         moment.setMemoryUsage(usage);
 
-        return new DriveImportOutcome(moment, false);
+        return moment;
+    }
+
+    private static final class DriveImportCheck {
+        static final DriveImportCheck SKIP = new DriveImportCheck(null, null, null, false);
+
+        final String momentId;
+        final String blobName;
+        /** Lower-case hex SHA-256 reported by Drive, or null. */
+        final String driveSha256;
+        final boolean blobExists;
+        final boolean skip;
+
+        DriveImportCheck(String momentId, String blobName, String driveSha256, boolean blobExists) {
+            this.momentId = momentId;
+            this.blobName = blobName;
+            this.driveSha256 = driveSha256;
+            this.blobExists = blobExists;
+            this.skip = momentId == null;
+        }
     }
 
     private static final class DriveImportOutcome {
@@ -707,37 +1361,42 @@ public class GoogleDriveImportService {
         }
     }
 
-    private static int[] readImageDimensionsFromPrefix(byte[] data, int len) {
+    /**
+     * Header-only probe of the captured prefix: {@link ImageHeaderParser} for the common formats, then an
+     * {@link ImageReader} (metadata only, no pixel decode) for anything it does not recognise.
+     */
+    private static ImageHeaderParser.ImageHeader readImageHeaderFromPrefix(byte[] data, int len) {
         if (data == null || len <= 0) {
-            return new int[] { 0, 0 };
+            return null;
         }
+        ImageHeaderParser.ImageHeader header = null;
         try {
-            BufferedImage img = ImageIO.read(new ByteArrayInputStream(data, 0, len));
-            if (img != null) {
-                return new int[] { img.getWidth(), img.getHeight() };
-            }
-        } catch (Exception ignored) {
+            header = ImageHeaderParser.parse(new ByteArrayInputStream(data, 0, len));
+        } catch (IOException ignored) {
             // try ImageReader below
         }
+        if (header != null && header.hasDimensions()) {
+            return header;
+        }
         try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(data, 0, len))) {
             if (iis == null) {
-                return new int[] { 0, 0 };
+                return header;
             }
             Iterator<ImageReader> it = ImageIO.getImageReaders(iis);
             if (!it.hasNext()) {
-                return new int[] { 0, 0 };
+                return header;
             }
             ImageReader reader = it.next();
             try {
                 reader.setInput(iis, true, true);
-                return new int[] { reader.getWidth(0), reader.getHeight(0) };
+                return ImageHeaderParser.ImageHeader.of(reader.getWidth(0), reader.getHeight(0), header);
             } catch (Exception ignored) {
-                return new int[] { 0, 0 };
+                return header;
             } finally {
                 reader.dispose();
             }
         } catch (Exception ignored) {
-            return new int[] { 0, 0 };
+            return header;
         }
     }
 
@@ -790,9 +1449,11 @@ public class GoogleDriveImportService {
             if (driveFile.getImageMediaMetadata() != null && driveFile.getImageMediaMetadata().getTime() != null) {
                 String captureTime = driveFile.getImageMediaMetadata().getTime();
                 try {
-                    return OffsetDateTime.parse(captureTime).toInstant().toEpochMilli();
+                    // Drive passes the EXIF value through as-is ("yyyy:MM:dd HH:mm:ss", no zone)
+                    return LocalDateTime.parse(captureTime, EXIF_DATE_TIME)
+                            .atZone(ImageHeaderParser.DEFAULT_CAPTURE_ZONE).toInstant().toEpochMilli();
                 } catch (DateTimeParseException ignored) {
-                    return Instant.parse(captureTime).toEpochMilli();
+                    return OffsetDateTime.parse(captureTime).toInstant().toEpochMilli();
                 }
             }
         } catch (Exception ignored) {
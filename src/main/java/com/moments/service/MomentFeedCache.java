@@ -0,0 +1,360 @@
+package com.moments.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.moments.models.Cursor;
+import com.moments.models.Media;
+import com.moments.models.Moment;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process cache for {@link MomentService#findMoments} feed pages. Guests of one event request the same
+ * {@code (eventId, filter, cursor)} pages over and over; a page is kept as its ordered moment-id list plus the
+ * total, and moments are hydrated from a shared per-moment map bounded by an estimated byte weight.
+ * <p>
+ * Local writes ({@code saveMoment}, batch saves, delete, status changes) invalidate directly. For writes made
+ * by other instances or by the face-tagging service, a Firestore snapshot listener is attached to the head of each
+ * cached event's feed ({@code listener-window} newest moments) and drops that event's pages on any change; older
+ * changes are picked up when pages expire after {@code ttl-ms}. Each invalidation bumps the event's generation;
+ * a page read before that (see {@link #generation}) is not cached when its query completes.
+ */
+@Component
+public class MomentFeedCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MomentFeedCache.class);
+
+    private static final String COLLECTION_NAME = "moments";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${moments.feed.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${moments.feed.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${moments.feed.cache.max-pages:2000}")
+    private int maxPages;
+
+    @Value("${moments.feed.cache.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${moments.feed.cache.max-listened-events:20}")
+    private int maxListenedEvents;
+
+    @Value("${moments.feed.cache.listener-window:500}")
+    private int listenerWindow;
+
+    private static final class Page {
+        private final String eventId;
+        private final List<String> momentIds;
+        private final int totalCount;
+        private final long expiresAt;
+
+        private Page(String eventId, List<String> momentIds, int totalCount, long expiresAt) {
+            this.eventId = eventId;
+            this.momentIds = momentIds;
+            this.totalCount = totalCount;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Entry {
+        private final Moment moment;
+        private final long weight;
+
+        private Entry(Moment moment, long weight) {
+            this.moment = moment;
+            this.weight = weight;
+        }
+    }
+
+    /** A page served from cache; moments are per-request copies so callers may set {@code isLiked}. */
+    public static final class CachedPage {
+        private final List<Moment> moments;
+        private final int totalCount;
+
+        private CachedPage(List<Moment> moments, int totalCount) {
+            this.moments = moments;
+            this.totalCount = totalCount;
+        }
+
+        public List<Moment> getMoments() {
+            return moments;
+        }
+
+        public int getTotalCount() {
+            return totalCount;
+        }
+    }
+
+    // Access-ordered maps give LRU eviction; all access is under this object's monitor.
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<String, Entry> moments = new LinkedHashMap<>(1024, 0.75f, true);
+    private final LinkedHashMap<String, ListenerRegistration> listeners = new LinkedHashMap<>(32, 0.75f, true);
+    private final Map<String, Long> generations = new HashMap<>();
+    private long totalWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("moments.feed.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.feed.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.feed.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("moments.feed.cache.invalidations", invalidations, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("moments.feed.cache.pages", this, MomentFeedCache::pageCount).register(meterRegistry);
+        Gauge.builder("moments.feed.cache.weight.bytes", this, MomentFeedCache::weight).register(meterRegistry);
+    }
+
+    @PreDestroy
+    synchronized void detachListeners() {
+        for (ListenerRegistration registration : listeners.values()) {
+            registration.remove();
+        }
+        listeners.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Cache key for one feed page; {@code null} when this request should not be cached. */
+    public String pageKey(String eventId, String creatorId, String creatorRoleFilter, Cursor cursor, int offset,
+            int limit) {
+        if (!enabled || eventId == null || eventId.isEmpty()) {
+            return null;
+        }
+        String position = offset <= 0 ? "0"
+                : cursor.getLastCreatedTime() + ":" + cursor.getLastMomentId() + ":" + offset;
+        return eventId + "|" + (creatorId == null ? "" : creatorId) + "|"
+                + (creatorRoleFilter == null ? "" : creatorRoleFilter) + "|" + position + "|" + limit;
+    }
+
+    /**
+     * @return the cached page, or {@code null} on a miss (absent, expired, or a moment was evicted/invalidated)
+     */
+    public synchronized CachedPage get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Page page = pages.get(key);
+        if (page == null || page.expiresAt <= System.currentTimeMillis()) {
+            if (page != null) {
+                pages.remove(key);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        List<Moment> hydrated = new ArrayList<>(page.momentIds.size());
+        for (String momentId : page.momentIds) {
+            Entry entry = moments.get(momentId);
+            if (entry == null) {
+                pages.remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+            hydrated.add(copyOf(entry.moment));
+        }
+        listeners.get(page.eventId); // keep the event's listener at the recent end of the LRU
+        hits.incrementAndGet();
+        return new CachedPage(hydrated, page.totalCount);
+    }
+
+    /** Current invalidation count of the event; read before issuing a feed query and pass it to {@link #put}. */
+    public synchronized long generation(String eventId) {
+        return eventId == null ? 0L : generations.getOrDefault(eventId, 0L);
+    }
+
+    /** Caches a page read at {@code generation}; dropped if the event was invalidated since. */
+    public synchronized void put(String key, String eventId, long generation, List<Moment> page, int totalCount) {
+        if (key == null || page == null || generation != generation(eventId)) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(page.size());
+        for (Moment moment : page) {
+            if (moment.getMomentId() == null) {
+                return;
+            }
+            ids.add(moment.getMomentId());
+            Entry previous = moments.put(moment.getMomentId(), new Entry(copyOf(moment), estimateWeight(moment)));
+            if (previous != null) {
+                totalWeight -= previous.weight;
+            }
+            totalWeight += moments.get(moment.getMomentId()).weight;
+        }
+        pages.put(key, new Page(eventId, ids, totalCount, System.currentTimeMillis() + ttlMs));
+        evictIfNeeded();
+        ensureListener(eventId);
+    }
+
+    /** Drops every cached page of the event; moments stay until evicted or individually invalidated. */
+    public synchronized void invalidateEvent(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        generations.merge(eventId, 1L, Long::sum);
+        if (pages.values().removeIf(page -> eventId.equals(page.eventId))) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /** Drops a moment and, if it was cached, every page of its event. */
+    public synchronized void invalidateMoment(String momentId) {
+        if (momentId == null) {
+            return;
+        }
+        Entry entry = moments.remove(momentId);
+        if (entry != null) {
+            totalWeight -= entry.weight;
+            invalidateEvent(entry.moment.getEventId());
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Page>> pageIterator = pages.entrySet().iterator();
+        while (pages.size() > maxPages && pageIterator.hasNext()) {
+            pageIterator.next();
+            pageIterator.remove();
+            evictions.incrementAndGet();
+        }
+        Iterator<Map.Entry<String, Entry>> momentIterator = moments.entrySet().iterator();
+        while (totalWeight > maxWeightBytes && momentIterator.hasNext()) {
+            totalWeight -= momentIterator.next().getValue().weight;
+            momentIterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void ensureListener(String eventId) {
+        if (eventId == null || listeners.containsKey(eventId) || maxListenedEvents <= 0) {
+            return;
+        }
+        while (listeners.size() >= maxListenedEvents) {
+            Iterator<Map.Entry<String, ListenerRegistration>> it = listeners.entrySet().iterator();
+            Map.Entry<String, ListenerRegistration> eldest = it.next();
+            eldest.getValue().remove();
+            it.remove();
+            invalidateEvent(eldest.getKey());
+        }
+        AtomicBoolean initialSnapshot = new AtomicBoolean(true);
+        Query head = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("eventId", eventId)
+                .orderBy("creationTime", Query.Direction.DESCENDING)
+                .limit(listenerWindow);
+        ListenerRegistration registration = head.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                logger.warn("Feed cache listener failed for event {}: {}", eventId, error.getMessage());
+                dropListener(eventId);
+                return;
+            }
+            if (initialSnapshot.getAndSet(false)) {
+                return;
+            }
+            if (snapshot != null && !snapshot.getDocumentChanges().isEmpty()) {
+                invalidateEvent(eventId);
+            }
+        });
+        listeners.put(eventId, registration);
+    }
+
+    private synchronized void dropListener(String eventId) {
+        ListenerRegistration registration = listeners.remove(eventId);
+        if (registration != null) {
+            registration.remove();
+        }
+        invalidateEvent(eventId);
+    }
+
+    private synchronized double pageCount() {
+        return pages.size();
+    }
+
+    private synchronized double weight() {
+        return totalWeight;
+    }
+
+    /** Rough heap footprint of a moment; only needs to be proportional for weight-based eviction. */
+    private static long estimateWeight(Moment m) {
+        long weight = 256;
+        weight += len(m.getMomentId()) + len(m.getEventId()) + len(m.getCreatorId()) + len(m.getCreatorRole())
+                + len(m.getCreationTimeText()) + len(m.getUploadTimeText());
+        Media media = m.getMedia();
+        if (media != null) {
+            weight += 64 + len(media.getUrl()) + len(media.getFeedUrl()) + len(media.getThumbnailUrl());
+        }
+        weight += listWeight(m.getLikedBy()) + listWeight(m.getReportedBy()) + listWeight(m.getTaggedUserIds());
+        if (m.getCreatorDetails() != null) {
+            weight += 128;
+        }
+        return weight;
+    }
+
+    private static long len(String s) {
+        return s == null ? 0 : 40L + 2L * s.length();
+    }
+
+    private static long listWeight(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long weight = 24;
+        for (String v : values) {
+            weight += 8 + len(v);
+        }
+        return weight;
+    }
+
+    /** Shallow copy: lists and nested objects are shared and treated as read-only by feed callers. */
+    private static Moment copyOf(Moment m) {
+        Moment c = new Moment();
+        c.setMomentId(m.getMomentId());
+        c.setEventId(m.getEventId());
+        c.setCreationTime(m.getCreationTime());
+        c.setCreatorDetails(m.getCreatorDetails());
+        c.setCreatorId(m.getCreatorId());
+        c.setCreatorRole(m.getCreatorRole());
+        c.setMedia(m.getMedia());
+        c.setUploadTime(m.getUploadTime());
+        c.setCreationTimeText(m.getCreationTimeText());
+        c.setUploadTimeText(m.getUploadTimeText());
+        c.setStatus(m.getStatus());
+        c.setAspectRatio(m.getAspectRatio());
+        c.setReportedBy(m.getReportedBy());
+        c.setLikedBy(m.getLikedBy());
+        c.setTaggedUserIds(m.getTaggedUserIds());
+        c.setMemoryUsage(m.getMemoryUsage());
+        c.setServerUpdatedAt(m.getServerUpdatedAt());
+        c.setLegacyUpdatedAtNumber(m.getLegacyUpdatedAtNumber());
+        return c;
+    }
+}
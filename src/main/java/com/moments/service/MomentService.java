@@ -4,16 +4,20 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.moments.models.*;
@@ -21,11 +25,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.moments.dao.ContentHashDao;
 import com.moments.dao.EventDao;
+import com.moments.dao.LikeAsyncDao;
 import com.moments.dao.LikeDao;
+import com.moments.dao.MomentAsyncDao;
 import com.moments.dao.MomentDao;
 
 import org.springframework.security.access.AccessDeniedException;
@@ -45,7 +53,10 @@ public class MomentService {
     private LikeDao likeDao;
 
     @Autowired
-    private FaceTaggingService faceTaggingService;
+    private FaceTaggingJobService faceTaggingJobService;
+
+    @Autowired
+    private FaceTaggingBatcher faceTaggingBatcher;
 
     @Autowired
     private NotificationService notificationService;
@@ -58,21 +69,35 @@ public class MomentService {
 
     @Autowired
     private GoogleCloudStorageService googleCloudStorageService;
+
+    @Autowired
+    private MomentFeedCache momentFeedCache;
+
+    @Autowired
+    private MomentAsyncDao momentAsyncDao;
+
+    @Autowired
+    private LikeAsyncDao likeAsyncDao;
     
     @Autowired
     @Qualifier("taskExecutor")
     private Executor taskExecutor;
-    
-    // Scheduled executor for retries
-    private final ScheduledExecutorService retryExecutor = Executors.newScheduledThreadPool(2);
-    
-    // Constants for retry configuration
-    private static final int MAX_RETRY_ATTEMPTS = 5;
-    private static final long INITIAL_RETRY_DELAY_MS = 500;
-    private static final long MAX_RETRY_DELAY_MS = 10000;
+
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private Executor backgroundExecutor;
+
+    @Autowired
+    private ContentHashDao contentHashDao;
+
+    /** Link re-uploads of an image already in the event (same SHA-256) to the existing moment. */
+    @Value("${moments.upload.dedup.enabled:true}")
+    private boolean dedupEnabled;
 
     // Create or Update a Moment
     public String saveMoment(Moment moment) throws ExecutionException, InterruptedException {
+        // Client-built: a hash the server did not compute must not reach the dedup index
+        moment.setContentSha256(null);
         moment.setUploadTime(Instant.now().toEpochMilli());
         if (moment.getCreationTime() == null) {
             moment.setCreationTime(moment.getUploadTime());
@@ -89,14 +114,17 @@ public class MomentService {
             moment.setCreatorRole(roleName);
         }
 
-        String momentId = momentDao.saveMoment(moment);
+        List<Moment> saved = Collections.singletonList(moment);
+        List<FaceTaggingJob> jobs = faceTaggingJobService.newJobs(saved);
+        String momentId = momentDao.saveMomentsBatch(saved, jobs).get(0);
+        momentFeedCache.invalidateEvent(moment.getEventId());
 
         logger.info("Successfully saved moment {} to database, triggering face tagging", momentId);
 
         adjustEventStorageForMoment(moment, 1);
 
-        // Trigger face tagging service call (async with fail safety) - non-blocking
-        faceTaggingService.processMomentsBatchAsync(Collections.singletonList(moment));
+        // Coalesced with other uploads to the same event into one face-tagging call
+        faceTaggingBatcher.submit(jobs);
 
         return momentId;
     }
@@ -172,17 +200,32 @@ public class MomentService {
             return new ArrayList<>();
         }
 
+        List<Moment> prepared = validMoments;
+        Map<Moment, String> linkedIds = new IdentityHashMap<>();
+        if (dedupEnabled) {
+            validMoments = linkDuplicateUploads(validMoments, linkedIds);
+            if (validMoments.isEmpty()) {
+                logger.info("All {} moments duplicated existing uploads; nothing new to save", linkedIds.size());
+                return inInputOrder(prepared, linkedIds, Collections.emptyList());
+            }
+        }
+
         // If batch size is 50 or more, split into smaller batches
         if (validMoments.size() >= 50) {
-            return saveMomentsInBatches(validMoments, synchronousFaceTagging);
+            List<String> ids = saveMomentsInBatches(validMoments, synchronousFaceTagging);
+            indexContentHashes(validMoments, ids);
+            return linkedIds.isEmpty() ? ids : inInputOrder(prepared, linkedIds, ids);
         }
 
-        // Use batch operation for atomicity
-        List<String> results = momentDao.saveMomentsBatch(validMoments);
+        // Use batch operation for atomicity; the face-tagging jobs commit with the moments
+        List<FaceTaggingJob> jobs = faceTaggingJobService.newJobs(validMoments);
+        List<String> results = momentDao.saveMomentsBatch(validMoments, jobs);
+        invalidateFeedCache(validMoments);
+        indexContentHashes(validMoments, results);
 
         logger.info("Successfully saved {} moments to database, triggering face tagging", results.size());
 
-        triggerFaceTaggingAfterSave(new ArrayList<>(validMoments), synchronousFaceTagging);
+        triggerFaceTaggingAfterSave(jobs, synchronousFaceTagging);
 
         if(sendNotification) {
             CompletableFuture.runAsync(() -> {
@@ -193,25 +236,219 @@ public class MomentService {
                 } catch (Exception e) {
                     logger.error("Error triggering Notiifcation: {}", e.getMessage(), e);
                 }
-            });
+            }, backgroundExecutor);
         }
 
-        return results;
+        return linkedIds.isEmpty() ? results : inInputOrder(prepared, linkedIds, results);
     }
 
-    private void triggerFaceTaggingAfterSave(List<Moment> moments, boolean synchronous) {
-        if (moments == null || moments.isEmpty()) {
+    /** Ids for {@code prepared} in its order: the linked original for duplicates, else the saved moment's own id. */
+    private static List<String> inInputOrder(List<Moment> prepared, Map<Moment, String> linkedIds,
+            List<String> savedIds) {
+        Set<String> saved = new HashSet<>(savedIds);
+        List<String> ids = new ArrayList<>(prepared.size());
+        for (Moment m : prepared) {
+            String linked = linkedIds.get(m);
+            if (linked != null) {
+                ids.add(linked);
+            } else if (saved.contains(m.getMomentId())) {
+                ids.add(m.getMomentId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Dedup mode for {@link #saveMoments}: a moment whose {@code contentSha256} already backs a moment in the same
+     * event (indexed earlier, or earlier in this list) is not saved or face-tagged again. Its id resolves to the
+     * existing moment in {@code linkedIds}, keyed by the duplicate, its redundant blob is deleted if this request uploaded it, and the
+     * savings are added to the event. Only server-computed hashes get here; see {@link Moment#getContentSha256()}.
+     *
+     * @return the moments that still need saving
+     */
+    private List<Moment> linkDuplicateUploads(List<Moment> moments, Map<Moment, String> linkedIds)
+            throws ExecutionException, InterruptedException {
+        Map<String, List<Moment>> hashedByEvent = new LinkedHashMap<>();
+        for (Moment m : moments) {
+            if (m.getEventId() != null && !m.getEventId().isBlank()
+                    && m.getContentSha256() != null && !m.getContentSha256().isBlank()) {
+                hashedByEvent.computeIfAbsent(m.getEventId(), k -> new ArrayList<>()).add(m);
+            }
+        }
+        if (hashedByEvent.isEmpty()) {
+            return moments;
+        }
+        Set<Moment> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<String, List<Moment>> entry : hashedByEvent.entrySet()) {
+            String eventId = entry.getKey();
+            List<String> hashes = entry.getValue().stream().map(Moment::getContentSha256).collect(Collectors.toList());
+            Map<String, ContentHash> indexed = findByContentHashes(eventId, hashes);
+            Map<String, Moment> firstInBatch = new HashMap<>();
+            long skipped = 0L;
+            long bytesSaved = 0L;
+            for (Moment m : entry.getValue()) {
+                String originalId;
+                String originalUrl;
+                ContentHash hit = indexed.get(m.getContentSha256());
+                if (hit != null) {
+                    originalId = hit.getMomentId();
+                    originalUrl = hit.getPublicUrl();
+                } else {
+                    Moment first = firstInBatch.putIfAbsent(m.getContentSha256(), m);
+                    if (first == null) {
+                        continue;
+                    }
+                    originalId = first.getMomentId();
+                    originalUrl = first.getMedia() != null ? first.getMedia().getUrl() : null;
+                }
+                if (originalId == null || originalId.equals(m.getMomentId())) {
+                    continue;
+                }
+                duplicates.add(m);
+                linkedIds.put(m, originalId);
+                skipped++;
+                bytesSaved += m.getMemoryUsage() != null ? nz(m.getMemoryUsage().getOriginalUploadSizeBytes()) : 0L;
+                deleteRedundantUpload(m, originalUrl);
+                logger.debug("Upload with sha256 {} in event {} linked to existing moment {}",
+                        m.getContentSha256(), eventId, originalId);
+            }
+            recordDedupSavings(eventId, skipped, bytesSaved);
+        }
+        if (duplicates.isEmpty()) {
+            return moments;
+        }
+        logger.info("Dedup linked {} of {} uploads to existing moments", duplicates.size(), moments.size());
+        return moments.stream().filter(m -> !duplicates.contains(m)).collect(Collectors.toList());
+    }
+
+    /**
+     * Deletes the copy this request just uploaded, unless it is the very object the existing moment points at.
+     * Objects the request did not write are never deleted.
+     */
+    private void deleteRedundantUpload(Moment duplicate, String originalUrl) {
+        Media media = duplicate.getMedia();
+        if (!duplicate.isUploadedInRequest() || media == null || media.getUrl() == null
+                || media.getUrl().equals(originalUrl)) {
             return;
         }
-        if (synchronous) {
+        CompletableFuture.runAsync(() -> googleCloudStorageService.deleteMediaObjects(media), backgroundExecutor);
+    }
+
+    private void recordDedupSavings(String eventId, long duplicates, long bytesSaved) {
+        if (duplicates == 0L) {
+            return;
+        }
+        try {
+            eventDao.recordDedupSavings(eventId, duplicates, bytesSaved);
+        } catch (Exception e) {
+            logger.warn("recordDedupSavings failed for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    /** Adds saved moments to the per-event content index so later re-uploads of the same bytes are linked. */
+    private void indexContentHashes(List<Moment> moments, List<String> savedIds) {
+        if (!dedupEnabled || savedIds == null || savedIds.isEmpty()) {
+            return;
+        }
+        Set<String> saved = new HashSet<>(savedIds);
+        for (Moment m : moments) {
+            if (m.getContentSha256() == null || m.getEventId() == null || !saved.contains(m.getMomentId())) {
+                continue;
+            }
+            ContentHash entry = new ContentHash();
+            entry.setEventId(m.getEventId());
+            entry.setSha256(m.getContentSha256());
+            entry.setMomentId(m.getMomentId());
+            entry.setPublicUrl(m.getMedia() != null ? m.getMedia().getUrl() : null);
+            entry.setObjectName(entry.getPublicUrl() != null
+                    ? googleCloudStorageService.objectNameFromPublicUrl(entry.getPublicUrl()) : null);
+            entry.setSizeBytes(m.getMemoryUsage() != null ? m.getMemoryUsage().getOriginalUploadSizeBytes() : null);
+            try {
+                if (!contentHashDao.createIfAbsent(entry)) {
+                    logger.debug("Content hash {} already indexed for event {}", m.getContentSha256(),
+                            m.getEventId());
+                }
+            } catch (Exception e) {
+                logger.warn("Could not index content hash for moment {}: {}", m.getMomentId(), e.getMessage());
+            }
+        }
+    }
+
+    /** Drops the index entry when its moment is deleted so the next upload of those bytes is stored again. */
+    private void unindexContentHash(Moment moment) {
+        if (moment.getContentSha256() == null || moment.getEventId() == null) {
+            return;
+        }
+        try {
+            ContentHash entry = contentHashDao.find(moment.getEventId(), moment.getContentSha256());
+            if (entry != null && moment.getMomentId().equals(entry.getMomentId())) {
+                contentHashDao.delete(moment.getEventId(), moment.getContentSha256());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not unindex content hash for moment {}: {}", moment.getMomentId(), e.getMessage());
+        }
+    }
+
+    /** @return the existing moment in {@code eventId} whose original bytes have this SHA-256, or null */
+    public ContentHash findByContentHash(String eventId, String sha256)
+            throws ExecutionException, InterruptedException {
+        return dedupEnabled ? contentHashDao.find(eventId, sha256) : null;
+    }
+
+    /**
+     * Index entries for the hashes in {@code eventId}, keyed by SHA-256, whose moment still exists and is approved
+     * (one {@code getAll} for the moments). Entries for deleted or hidden (e.g. reported) moments are dropped from
+     * the index, so the next upload of those bytes is stored and indexed instead of linked to an invisible moment.
+     */
+    public Map<String, ContentHash> findByContentHashes(String eventId, Collection<String> sha256s)
+            throws ExecutionException, InterruptedException {
+        if (!dedupEnabled) {
+            return new HashMap<>();
+        }
+        Map<String, ContentHash> indexed = contentHashDao.findAll(eventId, sha256s);
+        if (indexed.isEmpty()) {
+            return indexed;
+        }
+        Set<String> approved = momentDao.findApprovedMomentIds(
+                indexed.values().stream().map(ContentHash::getMomentId).filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+        Map<String, ContentHash> live = new HashMap<>();
+        for (Map.Entry<String, ContentHash> entry : indexed.entrySet()) {
+            if (approved.contains(entry.getValue().getMomentId())) {
+                live.put(entry.getKey(), entry.getValue());
+                continue;
+            }
             try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                contentHashDao.delete(eventId, entry.getKey());
+            } catch (Exception e) {
+                logger.warn("Could not drop stale content hash {} for event {}: {}", entry.getKey(), eventId,
+                        e.getMessage());
             }
-            faceTaggingService.processMomentsBatchSync(moments);
+        }
+        return live;
+    }
+
+    /** Counts uploads that were skipped before storing because their content was already in the event. */
+    public void recordSkippedDuplicates(String eventId, long duplicates, long bytesSaved) {
+        recordDedupSavings(eventId, duplicates, bytesSaved);
+    }
+
+    private void invalidateFeedCache(List<Moment> moments) {
+        moments.stream().map(Moment::getEventId).distinct().forEach(momentFeedCache::invalidateEvent);
+    }
+
+    /**
+     * Dispatches the jobs leased at save time, at once when synchronous and otherwise through the batcher; the
+     * outbox retries them if the call fails.
+     */
+    private void triggerFaceTaggingAfterSave(List<FaceTaggingJob> jobs, boolean synchronous) {
+        if (jobs == null || jobs.isEmpty()) {
+            return;
+        }
+        if (synchronous) {
+            faceTaggingJobService.dispatch(jobs).join();
         } else {
-            triggerFaceTaggingWithRetry(moments, 0);
+            faceTaggingBatcher.submit(jobs);
         }
     }
 
@@ -231,7 +468,9 @@ public class MomentService {
             logger.info("Processing batch {}: moments {} to {}", (i / batchSize) + 1, i, endIndex - 1);
 
             try {
-                List<String> batchIds = momentDao.saveMomentsBatch(batch);
+                List<FaceTaggingJob> jobs = faceTaggingJobService.newJobs(batch);
+                List<String> batchIds = momentDao.saveMomentsBatch(batch, jobs);
+                invalidateFeedCache(batch);
                 
                 if (batchIds == null || batchIds.size() != batch.size()) {
                     logger.error("Batch save returned {} IDs but expected {} for batch {}", 
@@ -246,9 +485,8 @@ public class MomentService {
                     adjustEventStorageForMoment(m, 1);
                 }
 
-                // Trigger face tagging for this batch with robust retry mechanism
-                // Create a copy for async processing to avoid any potential issues
-                triggerFaceTaggingAfterSave(new ArrayList<>(batch), synchronousFaceTagging);
+                // Failed calls are retried by the face-tagging outbox
+                triggerFaceTaggingAfterSave(jobs, synchronousFaceTagging);
             } catch (ExecutionException | InterruptedException e) {
                 logger.error("Error saving batch {}: {}", (i / batchSize) + 1, e.getMessage(), e);
                 // Re-throw ExecutionException and InterruptedException as they are declared exceptions
@@ -264,7 +502,12 @@ public class MomentService {
     }
 
     public Boolean reportMoment(ReportRequest reportRequest) throws ExecutionException, InterruptedException {
-        return momentDao.reportMoment(reportRequest);
+        boolean reported = momentDao.reportMoment(reportRequest);
+        if (reported) {
+            momentFeedCache.invalidateMoment(reportRequest.getMomentId());
+            momentFeedCache.invalidateEvent(reportRequest.getEventId());
+        }
+        return reported;
     }
 
     private String generateMomentId(String creatorId) {
@@ -279,6 +522,11 @@ public class MomentService {
         return momentDao.momentExists(momentId);
     }
 
+    public Set<String> findExistingMomentIds(Collection<String> momentIds)
+            throws ExecutionException, InterruptedException {
+        return momentDao.findExistingMomentIds(momentIds);
+    }
+
     // Get a Moment by ID
     public Moment getMomentById(String id) throws ExecutionException, InterruptedException {
         return momentDao.getMomentById(id);
@@ -291,16 +539,22 @@ public class MomentService {
 
     // Delete a Moment by ID
     public void deleteMoment(String id) throws ExecutionException, InterruptedException {
+        String eventId = null;
         try {
             Moment existing = momentDao.getMomentById(id);
+            eventId = existing.getEventId();
             googleCloudStorageService.deleteMediaObjects(existing.getMedia());
+            unindexContentHash(existing);
         } catch (RuntimeException e) {
             if (e.getMessage() == null || !e.getMessage().contains("not found")) {
                 throw e;
             }
             // Document already absent — still delete Firestore row for idempotency
         }
-        momentDao.deleteMoment(id);
+        momentDao.deleteMoment(id, eventId);
+        // After the delete, so a feed read racing it cannot re-cache the moment or the old total
+        momentFeedCache.invalidateEvent(eventId);
+        momentFeedCache.invalidateMoment(id);
     }
 
     /**
@@ -405,7 +659,7 @@ public class MomentService {
             long top = nz(agg.getOptimisedSizeBytes());
             long tth = nz(agg.getThumbnailSizeBytes());
             int mc = Math.max(0, event.getTotalMoments());
-            return new EventStorageSummary(eventId, eventName, to, top, tth, mc);
+            return withDedupSavings(new EventStorageSummary(eventId, eventName, to, top, tth, mc), event);
         }
         List<Moment> moments = momentDao.getAllMoments(eventId, null);
         long totalOriginal = 0L;
@@ -420,12 +674,30 @@ public class MomentService {
             totalOptimised += nz(u.getOptimisedSizeBytes());
             totalThumbnail += nz(u.getThumbnailSizeBytes());
         }
-        return new EventStorageSummary(eventId, eventName, totalOriginal, totalOptimised, totalThumbnail,
-                moments.size());
+        return withDedupSavings(new EventStorageSummary(eventId, eventName, totalOriginal, totalOptimised,
+                totalThumbnail, moments.size()), event);
+    }
+
+    private static EventStorageSummary withDedupSavings(EventStorageSummary summary, Event event) {
+        DedupSavings savings = event.getDedupSavings();
+        if (savings != null) {
+            summary.setDuplicatesSkipped(nz(savings.getDuplicatesSkipped()));
+            summary.setDedupBytesSaved(nz(savings.getBytesSaved()));
+        }
+        return summary;
     }
 
     public MomentsResponse findMoments(String eventId, MomentFilter filter, Cursor cursor, String userId)
             throws ExecutionException, InterruptedException {
+        return findMomentsAsync(eventId, filter, cursor, userId).get();
+    }
+
+    /**
+     * Non-blocking feed read: the page query and the total count are issued together, and the liked-state lookup
+     * starts as soon as the page arrives, so no request thread waits on Firestore.
+     */
+    public CompletableFuture<MomentsResponse> findMomentsAsync(String eventId, MomentFilter filter, Cursor cursor,
+            String userId) {
         int limit = cursor == null ? 20 : cursor.getLimit();
         int offset = cursor == null ? 0 : cursor.getOffset();
         String creatorId = filter == null ? null : filter.getCreatedById();
@@ -447,8 +719,8 @@ public class MomentService {
 //            }
 //        }
 
-        List<Moment> moments;
-        int totalCount;
+        CompletableFuture<List<Moment>> momentsFuture;
+        CompletableFuture<Integer> totalCountFuture;
 
         // Special handling for promotion event (eventId: "123456")
         if ("123456".equals(eventId) && userId != null && taggedUserId==null) {
@@ -461,38 +733,88 @@ public class MomentService {
             allowedCreatorIds.add("37");
             allowedCreatorIds.add("46");
             
-            moments = momentDao.getMomentsFeedByCreatorIds(allowedCreatorIds, eventId, offset, limit);
-            totalCount = momentDao.getTotalCountByCreatorIds(allowedCreatorIds, eventId);
+            momentsFuture = momentAsyncDao.getMomentsFeedByCreatorIdsAsync(allowedCreatorIds, eventId, offset, limit);
+            totalCountFuture = momentAsyncDao.getTotalCountByCreatorIdsAsync(allowedCreatorIds, eventId);
         } else if (Objects.equals(source, "web")) {
-            moments = momentDao.getAllMoments(eventId, creatorRoleFilter);
-            totalCount = moments.size();
+            momentsFuture = momentAsyncDao.getAllMomentsAsync(eventId, creatorRoleFilter);
+            totalCountFuture = momentsFuture.thenApply(List::size);
         } else if (taggedUserId != null && !taggedUserId.isEmpty()) {
             // Use tagged user filter (creatorId and taggedUserId are mutually exclusive)
-            moments = momentDao.getMomentsFeedByTaggedUser(taggedUserId, eventId, offset, limit, creatorRoleFilter);
-            totalCount = momentDao.getTotalCountByTaggedUser(taggedUserId, eventId, creatorRoleFilter);
-        } else if (creatorId != null && !creatorId.isEmpty()) {
-            // Use creator filter (default feed with creator filter)
-            moments = momentDao.getMomentsFeed(creatorId, eventId, offset, limit, creatorRoleFilter);
-            totalCount = momentDao.getTotalCount(creatorId, eventId, creatorRoleFilter);
+            if (offset <= 0) {
+                momentsFuture = momentAsyncDao.getMomentsFeedByTaggedUserAfterAsync(taggedUserId, eventId, null, null,
+                        limit, creatorRoleFilter);
+            } else if (hasKeysetPosition(cursor)) {
+                momentsFuture = momentAsyncDao.getMomentsFeedByTaggedUserAfterAsync(taggedUserId, eventId,
+                        cursor.getLastCreatedTime(), cursor.getLastMomentId(), limit, creatorRoleFilter);
+            } else {
+                momentsFuture = momentAsyncDao.getMomentsFeedByTaggedUserAsync(taggedUserId, eventId, offset, limit,
+                        creatorRoleFilter);
+            }
+            totalCountFuture = momentAsyncDao.getTotalCountByTaggedUserAsync(taggedUserId, eventId,
+                    creatorRoleFilter);
         } else {
-            // Default feed (no filters)
-            moments = momentDao.getMomentsFeed(null, eventId, offset, limit, creatorRoleFilter);
-            totalCount = momentDao.getTotalCount(null, eventId, creatorRoleFilter);
+            // Default feed, optionally filtered by creator (creatorId and taggedUserId are mutually exclusive)
+            String feedCreatorId = creatorId != null && !creatorId.isEmpty() ? creatorId : null;
+            String feedCacheKey = momentFeedCache.pageKey(eventId, feedCreatorId, creatorRoleFilter, cursor, offset,
+                    limit);
+            MomentFeedCache.CachedPage cached = momentFeedCache.get(feedCacheKey);
+            if (cached != null) {
+                momentsFuture = CompletableFuture.completedFuture(cached.getMoments());
+                totalCountFuture = CompletableFuture.completedFuture(cached.getTotalCount());
+            } else {
+                // Read before the query, so a write that invalidates the event while it runs keeps this page out
+                long generation = momentFeedCache.generation(eventId);
+                if (offset <= 0) {
+                    momentsFuture = momentAsyncDao.getMomentsFeedAfterAsync(feedCreatorId, eventId, null, null, limit,
+                            creatorRoleFilter);
+                } else if (hasKeysetPosition(cursor)) {
+                    momentsFuture = momentAsyncDao.getMomentsFeedAfterAsync(feedCreatorId, eventId,
+                            cursor.getLastCreatedTime(), cursor.getLastMomentId(), limit, creatorRoleFilter);
+                } else {
+                    // Legacy clients that only echo offset
+                    momentsFuture = momentAsyncDao.getMomentsFeedAsync(feedCreatorId, eventId, offset, limit,
+                            creatorRoleFilter);
+                }
+                totalCountFuture = momentAsyncDao.getTotalCountAsync(feedCreatorId, eventId, creatorRoleFilter);
+                momentsFuture.thenAcceptBoth(totalCountFuture,
+                        (moments, totalCount) -> momentFeedCache.put(feedCacheKey, eventId, generation, moments,
+                                totalCount));
+            }
         }
 
-        for (Moment moment : moments) {
-            moment.setIsLiked(moment.getLikedBy() != null && moment.getLikedBy().contains(userId));
-        }
+        CompletableFuture<Set<String>> likedFuture = momentsFuture.thenCompose(moments -> {
+            List<String> momentIds = moments.stream().map(Moment::getMomentId).collect(Collectors.toList());
+            return likeAsyncDao.getLikedMomentIdsAsync(userId, momentIds);
+        });
 
-        boolean isLastPage = moments.size() < limit;
-        Long lastMomentCreationTime = moments.isEmpty() ? null : moments.get(moments.size() - 1).getCreationTime();
-        Cursor cursorOut = new Cursor(totalCount, offset + moments.size(), limit, lastMomentCreationTime, isLastPage);
-        MomentsResponse momentsResponse = new MomentsResponse(moments, cursorOut);
+        return momentsFuture.thenCombine(totalCountFuture, (moments, totalCount) -> {
+            boolean isLastPage = moments.size() < limit;
+            Long lastMomentCreationTime = moments.isEmpty() ? null
+                    : moments.get(moments.size() - 1).getCreationTime();
+            Cursor cursorOut = new Cursor(totalCount, offset + moments.size(), limit, lastMomentCreationTime,
+                    isLastPage);
+            cursorOut.setLastMomentId(moments.isEmpty() ? null : moments.get(moments.size() - 1).getMomentId());
+            MomentsResponse momentsResponse = new MomentsResponse(moments, cursorOut);
+
+            if (taggedUserId != null && !taggedUserId.isEmpty()) {
+                momentsResponse.setReUploadRequired(totalCount<1);
+            }
+            return momentsResponse;
+        }).thenCombine(likedFuture, (momentsResponse, likedMomentIds) -> {
+            for (Moment moment : momentsResponse.getMoments()) {
+                moment.setIsLiked(likedMomentIds.contains(moment.getMomentId()));
+            }
+            return momentsResponse;
+        });
+    }
 
-        if (taggedUserId != null && !taggedUserId.isEmpty()) {
-            momentsResponse.setReUploadRequired(totalCount<1);
-        }
-        return momentsResponse;
+    /**
+     * Cursors returned by {@link #findMoments} carry {@code lastCreatedTime} + {@code lastMomentId} and are served
+     * with keyset paging; older clients that only echo {@code offset} keep offset paging.
+     */
+    private static boolean hasKeysetPosition(Cursor cursor) {
+        return cursor != null && cursor.getLastCreatedTime() != null
+                && cursor.getLastMomentId() != null && !cursor.getLastMomentId().isEmpty();
     }
 
     private String epocToString(Long epoc) {
@@ -503,7 +825,10 @@ public class MomentService {
 
     public String updateMomentStatus(String momentId, MomentStatus status)
             throws ExecutionException, InterruptedException {
-        return momentDao.updateMomentStatus(momentId, status);
+        String result = momentDao.updateMomentStatus(momentId, status);
+        // Drops the event's pages when the moment is cached; newly approved moments arrive via the listener
+        momentFeedCache.invalidateMoment(momentId);
+        return result;
     }
 
     public boolean likeMoment(LikeRequest likeRequest) throws ExecutionException, InterruptedException {
@@ -537,7 +862,7 @@ public class MomentService {
                 } catch(Exception e){
                     logger.error("Error triggering Notiifcation: {}", e.getMessage(), e);
                 }
-            });
+            }, backgroundExecutor);
             return true; // Return true to indicate liked
         }
     }
@@ -582,90 +907,5 @@ public class MomentService {
         }
         return momentDao.updateAllMomentsCreatorRoleForEvent(eventId, creatorRole);
     }
-    
-    /**
-     * Robust method to trigger face tagging with exponential backoff retry logic
-     * This ensures the face tagging service is always called, even if there are transient failures
-     */
-    private void triggerFaceTaggingWithRetry(List<Moment> moments, int attemptNumber) {
-        if (moments == null || moments.isEmpty()) {
-            logger.warn("Skipping face tagging trigger: moments list is null or empty");
-            return;
-        }
-        
-        // Calculate delay with exponential backoff, but capped at maximum
-        long delayMs = Math.min(INITIAL_RETRY_DELAY_MS * (long) Math.pow(2, attemptNumber), MAX_RETRY_DELAY_MS);
-        
-        // Use the configured task executor for better resource management
-        CompletableFuture.runAsync(() -> {
-            try {
-                // First attempt: wait a bit for DB commit
-                if (attemptNumber == 0) {
-                    Thread.sleep(200);
-                } else {
-                    // Subsequent retries: use exponential backoff
-                    Thread.sleep(delayMs);
-                }
-                
-                logger.info("Attempting to trigger face tagging (attempt {}/{}) for {} moments", 
-                    attemptNumber + 1, MAX_RETRY_ATTEMPTS, moments.size());
-                
-                // Trigger the face tagging service
-                faceTaggingService.processMomentsBatchAsync(moments);
-                
-                logger.info("Successfully triggered batch face tagging for {} moments", moments.size());
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Thread interrupted while triggering face tagging (attempt {}): {}", 
-                    attemptNumber + 1, e.getMessage(), e);
-                
-                // Retry on interrupt if we haven't exceeded max attempts
-                if (attemptNumber < MAX_RETRY_ATTEMPTS - 1) {
-                    scheduleRetry(moments, attemptNumber + 1);
-                } else {
-                    logger.error("Max retry attempts reached for face tagging after interruption. Giving up.");
-                }
-                
-            } catch (Exception e) {
-                logger.error("Error triggering batch face tagging (attempt {}): {}", 
-                    attemptNumber + 1, e.getMessage(), e);
-                
-                // Retry if we haven't exceeded max attempts
-                if (attemptNumber < MAX_RETRY_ATTEMPTS - 1) {
-                    logger.info("Scheduling retry {} for face tagging in {} ms", 
-                        attemptNumber + 2, delayMs);
-                    scheduleRetry(moments, attemptNumber + 1);
-                } else {
-                    logger.error("Max retry attempts ({}) reached for face tagging. Failed to trigger for {} moments. " +
-                        "Error: {}", MAX_RETRY_ATTEMPTS, moments.size(), e.getMessage(), e);
-                }
-            }
-        }, taskExecutor).exceptionally(ex -> {
-            // Handle any uncaught exceptions in the CompletableFuture
-            logger.error("Unexpected exception in face tagging trigger CompletableFuture (attempt {}): {}", 
-                attemptNumber + 1, ex.getMessage(), ex);
-            
-            // Still retry if possible
-            if (attemptNumber < MAX_RETRY_ATTEMPTS - 1) {
-                scheduleRetry(moments, attemptNumber + 1);
-            } else {
-                logger.error("Max retry attempts reached. Cannot retry face tagging trigger.");
-            }
-            return null;
-        });
-    }
-    
-    /**
-     * Schedule a retry attempt with exponential backoff
-     */
-    private void scheduleRetry(List<Moment> moments, int nextAttempt) {
-        long delayMs = Math.min(INITIAL_RETRY_DELAY_MS * (long) Math.pow(2, nextAttempt), MAX_RETRY_DELAY_MS);
-        
-        retryExecutor.schedule(() -> {
-            logger.info("Executing retry attempt {} for face tagging", nextAttempt + 1);
-            triggerFaceTaggingWithRetry(moments, nextAttempt);
-        }, delayMs, TimeUnit.MILLISECONDS);
-    }
 
 }
@@ -1,5 +1,6 @@
 package com.moments.service;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,7 +11,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.moments.dao.DriveImportCheckpointDao;
 import com.moments.dao.UploadRecordDao;
+import com.moments.models.DriveImportCheckpoint;
 import com.moments.models.GoogleDriveImportRequest;
 import com.moments.models.UploadRecord;
 
@@ -22,6 +25,9 @@ public class UploadRecordService {
     @Autowired
     private UploadRecordDao uploadRecordDao;
 
+    @Autowired
+    private DriveImportCheckpointDao checkpointDao;
+
     public String createStartedForDriveImport(String userId, String eventId, String creatorName, String driveLink)
             throws ExecutionException, InterruptedException {
         UploadRecord r = new UploadRecord();
@@ -115,6 +121,50 @@ public class UploadRecordService {
         m.put("pauseRequested", Boolean.FALSE);
         uploadRecordDao.mergeFields(recordId, m);
         log.info("UploadRecord {} DONE progress={} failed={}", recordId, momentsImported, failedCount);
+        try {
+            // A restart of a finished import should see files added to the folder since, so list afresh
+            checkpointDao.delete(recordId);
+        } catch (Exception e) {
+            log.warn("UploadRecord {} could not delete import checkpoint: {}", recordId, e.getMessage());
+        }
+    }
+
+    /** @return null if the import has no checkpoint */
+    public DriveImportCheckpoint getDriveImportCheckpoint(String recordId)
+            throws ExecutionException, InterruptedException {
+        if (recordId == null || recordId.isBlank()) {
+            return null;
+        }
+        return checkpointDao.get(recordId.trim());
+    }
+
+    /** Encoded listing snapshot chunks of a complete checkpoint; null if any chunk is missing. */
+    public List<byte[]> getDriveImportListing(DriveImportCheckpoint checkpoint)
+            throws ExecutionException, InterruptedException {
+        return checkpointDao.getListingChunks(checkpoint.getUploadRecordId(), checkpoint.getListingChunkCount());
+    }
+
+    public void saveDriveImportListing(DriveImportCheckpoint checkpoint, List<byte[]> chunks)
+            throws ExecutionException, InterruptedException {
+        checkpointDao.saveListing(checkpoint, chunks);
+        log.info("UploadRecord {} listing checkpointed: {} file(s) in {} chunk(s)", checkpoint.getUploadRecordId(),
+                checkpoint.getFileCount(), chunks.size());
+    }
+
+    /** Persists which listed files (by their number in the walk) have their moment saved. */
+    public void saveDriveImportProgress(String recordId, BitSet completed)
+            throws ExecutionException, InterruptedException {
+        if (recordId == null || recordId.isBlank()) {
+            return;
+        }
+        checkpointDao.saveProgress(recordId.trim(), completed.toByteArray(), completed.nextClearBit(0) - 1);
+    }
+
+    public void deleteDriveImportCheckpoint(String recordId) throws ExecutionException, InterruptedException {
+        if (recordId == null || recordId.isBlank()) {
+            return;
+        }
+        checkpointDao.delete(recordId.trim());
     }
 
     public void markDriveImportFailed(String recordId, String errorMessage)
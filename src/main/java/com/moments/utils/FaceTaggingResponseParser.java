@@ -0,0 +1,257 @@
+package com.moments.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.moments.models.FaceTaggingStorageUpdate;
+
+/**
+ * Streaming readers for face-tagging service responses. Only the fields the app uses are kept; everything else
+ * (embedding vectors, per-face details) is skipped token by token without building a tree or a string.
+ */
+public final class FaceTaggingResponseParser {
+
+    /** Candidate result arrays of a batch response, in order of preference. */
+    private static final String[] RESULT_ARRAY_KEYS = { "results", "moments", "data", "processed_moments",
+            "processedMoments" };
+
+    private static final String[] MOMENT_ID_KEYS = { "moment_id", "momentId", "id" };
+    private static final String[] FEED_URL_KEYS = { "feed_url", "feedUrl", "optimised_url", "optimisedUrl",
+            "optimized_url", "optimizedUrl" };
+    private static final String[] THUMBNAIL_URL_KEYS = { "thumbnail_url", "thumbnailUrl" };
+    private static final String[] OPTIMISED_SIZE_KEYS = { "optimised_size_bytes", "optimisedImageSizeBytes",
+            "optimized_size_bytes", "optimisedSizeBytes", "optimizedSizeBytes" };
+    private static final String[] THUMBNAIL_SIZE_KEYS = { "thumbnail_size_bytes", "thumbnailImageSizeBytes",
+            "thumbnailSizeBytes" };
+    private static final Set<String> RESULT_KEYS = new HashSet<>();
+    static {
+        for (String[] keys : Arrays.asList(MOMENT_ID_KEYS, FEED_URL_KEYS, THUMBNAIL_URL_KEYS, OPTIMISED_SIZE_KEYS,
+                THUMBNAIL_SIZE_KEYS)) {
+            RESULT_KEYS.addAll(Arrays.asList(keys));
+        }
+    }
+
+    private FaceTaggingResponseParser() {
+    }
+
+    /** What {@code /selfie/process} reported: faces found, the first face's quality and the matched moments. */
+    public static final class SelfieResponse {
+        private int faceCount;
+        private Double qualityScore;
+        private int matchCount;
+
+        public int getFaceCount() {
+            return faceCount;
+        }
+
+        public Double getQualityScore() {
+            return qualityScore;
+        }
+
+        public int getMatchCount() {
+            return matchCount;
+        }
+    }
+
+    /** What {@code /moments/batch} reported: the result count and the storage fields of those that carry any. */
+    public static final class BatchResponse {
+        private int resultCount;
+        private final List<FaceTaggingStorageUpdate> storageUpdates = new ArrayList<>();
+
+        public int getResultCount() {
+            return resultCount;
+        }
+
+        public List<FaceTaggingStorageUpdate> getStorageUpdates() {
+            return storageUpdates;
+        }
+    }
+
+    public static SelfieResponse parseSelfie(JsonFactory factory, byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            throw new IOException("Empty selfie processing response");
+        }
+        SelfieResponse response = new SelfieResponse();
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Selfie processing response is not a JSON object");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("face_count".equals(name) && value.isNumeric()) {
+                    response.faceCount = p.getIntValue();
+                } else if ("embeddings".equals(name) && value == JsonToken.START_ARRAY) {
+                    response.qualityScore = readFirstQualityScore(p);
+                } else if ("matches".equals(name) && value == JsonToken.START_ARRAY) {
+                    response.matchCount = countElements(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Reads the first of {@code results}, {@code moments}, {@code data}, {@code processed_moments} or
+     * {@code processedMoments} that is an array (or a top-level array). Each result needs a moment id and at
+     * least one of the feed/thumbnail URLs or sizes to produce a storage update.
+     */
+    public static BatchResponse parseBatch(JsonFactory factory, byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            return new BatchResponse();
+        }
+        try (JsonParser p = factory.createParser(body)) {
+            JsonToken root = p.nextToken();
+            if (root == JsonToken.START_ARRAY) {
+                return readResults(p);
+            }
+            if (root != JsonToken.START_OBJECT) {
+                return new BatchResponse();
+            }
+            BatchResponse best = null;
+            int bestRank = Integer.MAX_VALUE;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                int rank = indexOf(RESULT_ARRAY_KEYS, p.currentName());
+                JsonToken value = p.nextToken();
+                if (rank >= 0 && rank < bestRank && value == JsonToken.START_ARRAY) {
+                    best = readResults(p);
+                    bestRank = rank;
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return best != null ? best : new BatchResponse();
+        }
+    }
+
+    private static BatchResponse readResults(JsonParser p) throws IOException {
+        BatchResponse response = new BatchResponse();
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            response.resultCount++;
+            FaceTaggingStorageUpdate update = readResult(p);
+            if (update != null) {
+                response.storageUpdates.add(update);
+            }
+        }
+        return response;
+    }
+
+    private static FaceTaggingStorageUpdate readResult(JsonParser p) throws IOException {
+        // Scalars of the fields we know, by key; aliases are resolved afterwards in order of preference
+        Map<String, String> texts = new HashMap<>();
+        Map<String, Long> numbers = new HashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (!RESULT_KEYS.contains(name)) {
+                p.skipChildren();
+            } else if (value == JsonToken.VALUE_STRING) {
+                texts.put(name, p.getText());
+            } else if (value.isNumeric()) {
+                numbers.put(name, p.getLongValue());
+            } else {
+                p.skipChildren();
+            }
+        }
+        String momentId = text(texts, MOMENT_ID_KEYS);
+        if (momentId == null) {
+            return null;
+        }
+        String feedUrl = text(texts, FEED_URL_KEYS);
+        String thumbnailUrl = text(texts, THUMBNAIL_URL_KEYS);
+        Long optimisedSize = number(texts, numbers, OPTIMISED_SIZE_KEYS);
+        Long thumbnailSize = number(texts, numbers, THUMBNAIL_SIZE_KEYS);
+        if (feedUrl == null && thumbnailUrl == null && optimisedSize == null && thumbnailSize == null) {
+            return null;
+        }
+        return new FaceTaggingStorageUpdate(momentId, feedUrl, thumbnailUrl, optimisedSize, thumbnailSize);
+    }
+
+    private static Double readFirstQualityScore(JsonParser p) throws IOException {
+        Double score = null;
+        boolean first = true;
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (!first || token != JsonToken.START_OBJECT) {
+                first = false;
+                p.skipChildren();
+                continue;
+            }
+            first = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("quality_score".equals(name) && value.isNumeric()) {
+                    score = p.getDoubleValue();
+                } else {
+                    // The embedding vector itself
+                    p.skipChildren();
+                }
+            }
+        }
+        return score;
+    }
+
+    private static int countElements(JsonParser p) throws IOException {
+        int count = 0;
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            p.skipChildren();
+            count++;
+        }
+        return count;
+    }
+
+    private static String text(Map<String, String> texts, String[] keys) {
+        for (String key : keys) {
+            String v = texts.get(key);
+            if (v != null && !v.isBlank()) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    private static Long number(Map<String, String> texts, Map<String, Long> numbers, String[] keys) {
+        for (String key : keys) {
+            Long n = numbers.get(key);
+            if (n != null) {
+                return n;
+            }
+            String v = texts.get(key);
+            if (v != null) {
+                try {
+                    return Long.parseLong(v.trim());
+                } catch (NumberFormatException ignored) {
+                    // try next key
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(String[] keys, String name) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
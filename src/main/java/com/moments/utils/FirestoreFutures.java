@@ -0,0 +1,38 @@
+package com.moments.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+
+/**
+ * Adapts Google client {@link ApiFuture}s (Firestore, Storage) to {@link CompletableFuture} so services can compose
+ * independent calls without blocking a request thread on {@code get()}.
+ */
+public final class FirestoreFutures {
+
+    private FirestoreFutures() {
+    }
+
+    /**
+     * Completes on {@code executor}, so non-async continuations ({@code thenApply} mapping, merges, cache writes)
+     * run there instead of on the thread that finished the RPC and would delay every other in-flight completion.
+     */
+    public static <T> CompletableFuture<T> toCompletable(ApiFuture<T> apiFuture, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+        }, executor);
+        return future;
+    }
+}
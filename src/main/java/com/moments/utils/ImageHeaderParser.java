@@ -0,0 +1,607 @@
+package com.moments.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import com.moments.models.Media;
+import com.moments.models.Moment;
+
+/**
+ * Reads dimensions, orientation and capture time from the start of a JPEG, PNG, GIF, WebP or HEIC/AVIF stream
+ * without decoding pixels. Only what is needed is read: JPEG segments other than EXIF are skipped, and the only
+ * buffers are the EXIF block (at most 64 KiB) or the HEIF {@code meta} box.
+ */
+public final class ImageHeaderParser {
+
+    /** EXIF times carry no zone unless OffsetTimeOriginal is present; read them as IST like the rest of the app. */
+    public static final ZoneId DEFAULT_CAPTURE_ZONE = ZoneId.of("Asia/Kolkata");
+
+    private static final int MAX_META_BOX_BYTES = 1024 * 1024;
+    private static final int MAX_TOP_LEVEL_BOXES = 32;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TAG_DATE_TIME = 0x0132;
+    private static final int TAG_EXIF_IFD = 0x8769;
+    private static final int TAG_DATE_TIME_ORIGINAL = 0x9003;
+    private static final int TAG_OFFSET_TIME_ORIGINAL = 0x9011;
+
+    private ImageHeaderParser() {
+    }
+
+    /** Result of {@link #parse}; dimensions are as stored, {@link #getDisplayWidth()} applies the orientation. */
+    public static final class ImageHeader {
+        private int width;
+        private int height;
+        private int orientation = 1;
+        private LocalDateTime captureTime;
+        private ZoneOffset captureOffset;
+
+        /** Dimensions found by another reader, keeping orientation and capture time from {@code parsed}. */
+        public static ImageHeader of(int width, int height, ImageHeader parsed) {
+            ImageHeader header = new ImageHeader();
+            header.width = width;
+            header.height = height;
+            if (parsed != null) {
+                header.orientation = parsed.orientation;
+                header.captureTime = parsed.captureTime;
+                header.captureOffset = parsed.captureOffset;
+            }
+            return header;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /** EXIF orientation 1-8 (1 = upright). */
+        public int getOrientation() {
+            return orientation;
+        }
+
+        public boolean hasDimensions() {
+            return width > 0 && height > 0;
+        }
+
+        /** Orientations 5-8 are rotated a quarter turn, so the displayed image is height x width. */
+        public int getDisplayWidth() {
+            return orientation >= 5 ? height : width;
+        }
+
+        public int getDisplayHeight() {
+            return orientation >= 5 ? width : height;
+        }
+
+        /** @return capture time in epoch millis, or null if the file has none */
+        public Long getCaptureTimeMillis(ZoneId fallbackZone) {
+            if (captureTime == null) {
+                return null;
+            }
+            return captureOffset != null
+                    ? captureTime.toInstant(captureOffset).toEpochMilli()
+                    : captureTime.atZone(fallbackZone).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * Parses the header of {@code in}, which is left positioned somewhere inside the file.
+     *
+     * @return null if the format is not recognised or the header is truncated
+     */
+    public static ImageHeader parse(InputStream in) throws IOException {
+        byte[] head = new byte[12];
+        if (!readFully(in, head, 0, head.length)) {
+            return null;
+        }
+        ImageHeader header = new ImageHeader();
+        if ((head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8) {
+            parseJpeg(in, head, header);
+        } else if ((head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            parsePng(in, header);
+        } else if (head[0] == 'G' && head[1] == 'I' && head[2] == 'F') {
+            parseGif(in, head, header);
+        } else if (isAscii(head, 0, "RIFF") && isAscii(head, 8, "WEBP")) {
+            parseWebp(in, header);
+        } else if (isAscii(head, 4, "ftyp")) {
+            parseHeif(in, head, header);
+        } else {
+            return null;
+        }
+        return header.hasDimensions() || header.captureTime != null ? header : null;
+    }
+
+    /**
+     * Fills what the client did not send: media width/height (as displayed), aspect ratio and creation time.
+     * Values already on the moment are kept.
+     */
+    public static void fillMissing(Moment moment, ImageHeader header) {
+        if (moment == null || header == null) {
+            return;
+        }
+        Media media = moment.getMedia();
+        if (header.hasDimensions()) {
+            if (media != null && (isUnset(media.getWidth()) || isUnset(media.getHeight()))) {
+                media.setWidth(header.getDisplayWidth());
+                media.setHeight(header.getDisplayHeight());
+            }
+            if (moment.getAspectRatio() == 0) {
+                moment.setAspectRatio(Math.round((header.getDisplayWidth() * 1000.0) / header.getDisplayHeight()));
+            }
+        }
+        if (moment.getCreationTime() == null) {
+            moment.setCreationTime(header.getCaptureTimeMillis(DEFAULT_CAPTURE_ZONE));
+        }
+    }
+
+    private static boolean isUnset(Integer v) {
+        return v == null || v <= 0;
+    }
+
+    // --- JPEG ---
+
+    private static void parseJpeg(InputStream in, byte[] head, ImageHeader header) throws IOException {
+        // head holds SOI plus the first 10 bytes of the segment stream; replay them before reading on
+        InputStream s = new PrefixedStream(head, 2, in);
+        byte[] buf = new byte[5];
+        while (true) {
+            int b = s.read();
+            while (b != -1 && b != 0xFF) {
+                b = s.read();
+            }
+            int marker = s.read();
+            while (marker == 0xFF) {
+                marker = s.read();
+            }
+            if (b == -1 || marker == -1 || marker == 0xD9 || marker == 0xDA) {
+                return;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (!readFully(s, buf, 0, 2)) {
+                return;
+            }
+            int length = ((buf[0] & 0xFF) << 8 | (buf[1] & 0xFF)) - 2;
+            if (length < 0) {
+                return;
+            }
+            if (marker == 0xE1 && header.captureTime == null && header.orientation == 1 && length >= 14) {
+                byte[] app1 = new byte[length];
+                if (!readFully(s, app1, 0, length)) {
+                    return;
+                }
+                if (isAscii(app1, 0, "Exif") && app1[4] == 0 && app1[5] == 0) {
+                    parseTiff(app1, 6, length, header);
+                }
+            } else if (isStartOfFrame(marker) && length >= 5) {
+                if (!readFully(s, buf, 0, 5)) {
+                    return;
+                }
+                header.height = (buf[1] & 0xFF) << 8 | (buf[2] & 0xFF);
+                header.width = (buf[3] & 0xFF) << 8 | (buf[4] & 0xFF);
+                // EXIF (APP1) precedes the frame header, so nothing useful follows
+                return;
+            } else if (!skipFully(s, length)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    // --- EXIF / TIFF ---
+
+    private static void parseTiff(byte[] b, int start, int end, ImageHeader header) {
+        if (end - start < 8) {
+            return;
+        }
+        boolean le;
+        if (b[start] == 'I' && b[start + 1] == 'I') {
+            le = true;
+        } else if (b[start] == 'M' && b[start + 1] == 'M') {
+            le = false;
+        } else {
+            return;
+        }
+        if (u16(b, start + 2, le) != 42) {
+            return;
+        }
+        long ifd0 = u32(b, start + 4, le);
+        long exifIfd = -1;
+        LocalDateTime dateTime = null;
+        int ifd = (int) Math.min(ifd0, Integer.MAX_VALUE);
+        int count = entryCount(b, start, end, ifd, le);
+        for (int i = 0; i < count; i++) {
+            int e = start + ifd + 2 + i * 12;
+            int tag = u16(b, e, le);
+            if (tag == TAG_ORIENTATION) {
+                int o = u16(b, e + 8, le);
+                if (o >= 1 && o <= 8) {
+                    header.orientation = o;
+                }
+            } else if (tag == TAG_EXIF_IFD) {
+                exifIfd = u32(b, e + 8, le);
+            } else if (tag == TAG_DATE_TIME) {
+                dateTime = exifDateTime(b, start, end, e, le);
+            }
+        }
+        LocalDateTime original = null;
+        if (exifIfd > 0 && exifIfd < end - start) {
+            int sub = (int) exifIfd;
+            int subCount = entryCount(b, start, end, sub, le);
+            for (int i = 0; i < subCount; i++) {
+                int e = start + sub + 2 + i * 12;
+                int tag = u16(b, e, le);
+                if (tag == TAG_DATE_TIME_ORIGINAL) {
+                    original = exifDateTime(b, start, end, e, le);
+                } else if (tag == TAG_OFFSET_TIME_ORIGINAL) {
+                    header.captureOffset = exifOffset(b, start, end, e, le);
+                }
+            }
+        }
+        header.captureTime = original != null ? original : dateTime;
+        if (original == null) {
+            header.captureOffset = null;
+        }
+    }
+
+    private static int entryCount(byte[] b, int start, int end, int ifd, boolean le) {
+        if (ifd < 8 || start + ifd + 2 > end) {
+            return 0;
+        }
+        int count = u16(b, start + ifd, le);
+        int max = (end - start - ifd - 2) / 12;
+        return Math.min(count, max);
+    }
+
+    /** Offset of an ASCII value: inline when it fits in 4 bytes, else relative to the TIFF header. */
+    private static int asciiValueOffset(byte[] b, int start, int end, int entry, int length, boolean le) {
+        long count = u32(b, entry + 4, le);
+        if (count < length) {
+            return -1;
+        }
+        int off = count <= 4 ? entry + 8 : (int) Math.min(start + u32(b, entry + 8, le), Integer.MAX_VALUE);
+        return off >= start && off + length <= end ? off : -1;
+    }
+
+    /** "YYYY:MM:DD HH:MM:SS" without building a String; null for blank or invalid values. */
+    private static LocalDateTime exifDateTime(byte[] b, int start, int end, int entry, boolean le) {
+        int off = asciiValueOffset(b, start, end, entry, 19, le);
+        if (off < 0) {
+            return null;
+        }
+        int year = digits(b, off, 4);
+        int month = digits(b, off + 5, 2);
+        int day = digits(b, off + 8, 2);
+        int hour = digits(b, off + 11, 2);
+        int minute = digits(b, off + 14, 2);
+        int second = digits(b, off + 17, 2);
+        if (year <= 0 || month <= 0 || day <= 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /** "+HH:MM" / "-HH:MM". */
+    private static ZoneOffset exifOffset(byte[] b, int start, int end, int entry, boolean le) {
+        int off = asciiValueOffset(b, start, end, entry, 6, le);
+        if (off < 0 || (b[off] != '+' && b[off] != '-')) {
+            return null;
+        }
+        int hours = digits(b, off + 1, 2);
+        int minutes = digits(b, off + 4, 2);
+        if (hours < 0 || minutes < 0) {
+            return null;
+        }
+        int sign = b[off] == '-' ? -1 : 1;
+        try {
+            return ZoneOffset.ofHoursMinutes(sign * hours, sign * minutes);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(byte[] b, int off, int n) {
+        int v = 0;
+        for (int i = 0; i < n; i++) {
+            int d = b[off + i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            v = v * 10 + d;
+        }
+        return v;
+    }
+
+    // --- PNG / GIF / WebP ---
+
+    private static void parsePng(InputStream in, ImageHeader header) throws IOException {
+        // bytes 12-15 are "IHDR", then width and height (big-endian)
+        byte[] b = new byte[12];
+        if (readFully(in, b, 0, b.length) && isAscii(b, 0, "IHDR")) {
+            header.width = (int) u32(b, 4, false);
+            header.height = (int) u32(b, 8, false);
+        }
+    }
+
+    private static void parseGif(InputStream in, byte[] head, ImageHeader header) throws IOException {
+        // logical screen width/height at bytes 6-9 (little-endian), already in head
+        header.width = u16(head, 6, true);
+        header.height = u16(head, 8, true);
+    }
+
+    private static void parseWebp(InputStream in, ImageHeader header) throws IOException {
+        byte[] b = new byte[18];
+        if (!readFully(in, b, 0, b.length)) {
+            return;
+        }
+        // b[0..3] chunk fourcc, b[4..7] chunk size, payload from b[8]
+        if (isAscii(b, 0, "VP8X")) {
+            header.width = 1 + u24le(b, 12);
+            header.height = 1 + u24le(b, 15);
+        } else if (isAscii(b, 0, "VP8L") && (b[8] & 0xFF) == 0x2F) {
+            long bits = u32(b, 9, true);
+            header.width = 1 + (int) (bits & 0x3FFF);
+            header.height = 1 + (int) ((bits >> 14) & 0x3FFF);
+        } else if (isAscii(b, 0, "VP8 ") && (b[11] & 0xFF) == 0x9D && (b[12] & 0xFF) == 0x01
+                && (b[13] & 0xFF) == 0x2A) {
+            header.width = u16(b, 14, true) & 0x3FFF;
+            header.height = u16(b, 16, true) & 0x3FFF;
+        }
+    }
+
+    // --- HEIF (HEIC / AVIF) ---
+
+    private static void parseHeif(InputStream in, byte[] head, ImageHeader header) throws IOException {
+        long boxSize = u32(head, 0, false);
+        if (boxSize < 12 || !skipFully(in, boxSize - 12)) {
+            return;
+        }
+        byte[] boxHeader = new byte[8];
+        for (int i = 0; i < MAX_TOP_LEVEL_BOXES; i++) {
+            if (!readFully(in, boxHeader, 0, 8)) {
+                return;
+            }
+            long size = u32(boxHeader, 0, false);
+            if (size < 8) {
+                return;
+            }
+            if (isAscii(boxHeader, 4, "meta")) {
+                if (size - 8 > MAX_META_BOX_BYTES) {
+                    return;
+                }
+                byte[] meta = new byte[(int) (size - 8)];
+                if (readFully(in, meta, 0, meta.length)) {
+                    // meta is a full box: 4 bytes of version/flags precede its children
+                    parseHeifMeta(meta, 4, meta.length, header);
+                }
+                return;
+            }
+            if (isAscii(boxHeader, 4, "mdat") || !skipFully(in, size - 8)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the {@code ispe} (and {@code irot}) properties associated with the primary item via {@code ipma};
+     * the first {@code ispe} in a HEIC is often a grid tile, not the image.
+     */
+    private static void parseHeifMeta(byte[] b, int start, int end, ImageHeader header) {
+        long primaryId = -1;
+        int ipco = -1;
+        int ipcoEnd = -1;
+        int ipma = -1;
+        int ipmaEnd = -1;
+        for (int p = start; p + 8 <= end; ) {
+            long size = u32(b, p, false);
+            if (size < 8 || p + size > end) {
+                break;
+            }
+            if (isAscii(b, p + 4, "pitm") && size >= 14) {
+                primaryId = b[p + 8] == 0 ? u16(b, p + 12, false) : u32(b, p + 12, false);
+            } else if (isAscii(b, p + 4, "iprp")) {
+                for (int q = p + 8; q + 8 <= p + size; ) {
+                    long childSize = u32(b, q, false);
+                    if (childSize < 8 || q + childSize > p + size) {
+                        break;
+                    }
+                    if (isAscii(b, q + 4, "ipco")) {
+                        ipco = q + 8;
+                        ipcoEnd = (int) (q + childSize);
+                    } else if (isAscii(b, q + 4, "ipma")) {
+                        ipma = q + 8;
+                        ipmaEnd = (int) (q + childSize);
+                    }
+                    q += (int) childSize;
+                }
+            }
+            p += (int) size;
+        }
+        if (ipco < 0) {
+            return;
+        }
+        int[] primaryProps = ipma >= 0 && primaryId >= 0 ? primaryProperties(b, ipma, ipmaEnd, primaryId) : null;
+        int index = 0;
+        int bestArea = -1;
+        for (int p = ipco; p + 8 <= ipcoEnd; ) {
+            long size = u32(b, p, false);
+            if (size < 8 || p + size > ipcoEnd) {
+                break;
+            }
+            index++;
+            boolean primary = primaryProps == null || contains(primaryProps, index);
+            if (isAscii(b, p + 4, "ispe") && size >= 20) {
+                int w = (int) u32(b, p + 12, false);
+                int h = (int) u32(b, p + 16, false);
+                // Without associations fall back to the largest extent (the full image, not a tile)
+                if (primary && (primaryProps != null || (long) w * h > bestArea)) {
+                    header.width = w;
+                    header.height = h;
+                    bestArea = (int) Math.min((long) w * h, Integer.MAX_VALUE);
+                }
+            } else if (isAscii(b, p + 4, "irot") && size >= 9 && primaryProps != null && primary) {
+                int angle = b[p + 8] & 0x03;
+                header.orientation = angle == 1 ? 8 : angle == 2 ? 3 : angle == 3 ? 6 : 1;
+            }
+            p += (int) size;
+        }
+    }
+
+    /** 1-based {@code ipco} indices associated with {@code itemId}, or null if the item has no entry. */
+    private static int[] primaryProperties(byte[] b, int start, int end, long itemId) {
+        if (start + 8 > end) {
+            return null;
+        }
+        int version = b[start] & 0xFF;
+        boolean wideIndex = (b[start + 3] & 0x01) != 0;
+        long entries = u32(b, start + 4, false);
+        int p = start + 8;
+        for (long e = 0; e < entries; e++) {
+            int idSize = version < 1 ? 2 : 4;
+            if (p + idSize + 1 > end) {
+                return null;
+            }
+            long id = version < 1 ? u16(b, p, false) : u32(b, p, false);
+            p += idSize;
+            int associations = b[p++] & 0xFF;
+            int entrySize = wideIndex ? 2 : 1;
+            if (p + associations * entrySize > end) {
+                return null;
+            }
+            if (id == itemId) {
+                int[] props = new int[associations];
+                for (int a = 0; a < associations; a++) {
+                    props[a] = wideIndex ? u16(b, p + a * 2, false) & 0x7FFF : b[p + a] & 0x7F;
+                }
+                return props;
+            }
+            p += associations * entrySize;
+        }
+        return null;
+    }
+
+    private static boolean contains(int[] values, int v) {
+        for (int x : values) {
+            if (x == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- byte helpers ---
+
+    private static boolean isAscii(byte[] b, int off, String s) {
+        if (off + s.length() > b.length) {
+            return false;
+        }
+        byte[] expected = s.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < expected.length; i++) {
+            if (b[off + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int u16(byte[] b, int off, boolean le) {
+        int b0 = b[off] & 0xFF;
+        int b1 = b[off + 1] & 0xFF;
+        return le ? (b1 << 8 | b0) : (b0 << 8 | b1);
+    }
+
+    private static int u24le(byte[] b, int off) {
+        return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16;
+    }
+
+    private static long u32(byte[] b, int off, boolean le) {
+        long b0 = b[off] & 0xFF;
+        long b1 = b[off + 1] & 0xFF;
+        long b2 = b[off + 2] & 0xFF;
+        long b3 = b[off + 3] & 0xFF;
+        return le ? (b3 << 24 | b2 << 16 | b1 << 8 | b0) : (b0 << 24 | b1 << 16 | b2 << 8 | b3);
+    }
+
+    private static boolean readFully(InputStream in, byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = in.read(b, off, len);
+            if (n < 0) {
+                return false;
+            }
+            off += n;
+            len -= n;
+        }
+        return true;
+    }
+
+    private static boolean skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    return false;
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+        return true;
+    }
+
+    /** Replays already-read header bytes before continuing with the underlying stream. */
+    private static final class PrefixedStream extends InputStream {
+        private final byte[] prefix;
+        private int pos;
+        private final InputStream in;
+
+        PrefixedStream(byte[] prefix, int pos, InputStream in) {
+            this.prefix = prefix;
+            this.pos = pos;
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return pos < prefix.length ? prefix[pos++] & 0xFF : in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (pos < prefix.length) {
+                int n = Math.min(len, prefix.length - pos);
+                System.arraycopy(prefix, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (pos < prefix.length) {
+                int k = (int) Math.min(n, prefix.length - pos);
+                pos += k;
+                return k;
+            }
+            return in.skip(n);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.moments.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Small in-process cache whose entries expire {@code ttlMillis} after they were loaded. Used for values that are
+ * expensive to compute on every request but may be slightly stale (e.g. feed totals for {@code Cursor.total}).
+ * When the cache grows past {@code maxEntries}, expired entries are purged and, if still full, it is cleared.
+ */
+public class TtlCache<K, V> {
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public TtlCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached value, or starts {@code loader} and caches its result once it completes. Concurrent
+     * misses for the same key each load; the last completion wins.
+     */
+    public CompletableFuture<V> getAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        if (ttlMillis <= 0) {
+            return loader.get();
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            return CompletableFuture.completedFuture(entry.value);
+        }
+        return loader.get().thenApply(value -> {
+            put(key, value);
+            return value;
+        });
+    }
+
+    private void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
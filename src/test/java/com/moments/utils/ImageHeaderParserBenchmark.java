@@ -0,0 +1,120 @@
+package com.moments.utils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Reading width and height from the 512 KiB prefix the Drive import downloads: {@link ImageHeaderParser} against
+ * the full {@code ImageIO.read} decode it replaced and the metadata-only {@link ImageReader} it falls back to.
+ * Run {@link #main} from the test classpath (e.g. {@code mvn test-compile} then the IDE), not as part of the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageHeaderParserBenchmark {
+
+    /** Same as the Drive import's header prefix. */
+    private static final int PREFIX_BYTES = 512 * 1024;
+
+    @Param({ "jpeg", "png" })
+    private String format;
+
+    @Param({ "1600x1200", "4000x3000" })
+    private String size;
+
+    private byte[] prefix;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dims = size.split("x");
+        BufferedImage image = new BufferedImage(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]),
+                BufferedImage.TYPE_INT_RGB);
+        // Noise plus shapes, so the encoded file is closer to a photo than a flat fill
+        Random random = new Random(42);
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                g.setColor(new Color(random.nextInt(0xFFFFFF)));
+                g.fillOval(random.nextInt(image.getWidth()), random.nextInt(image.getHeight()),
+                        20 + random.nextInt(200), 20 + random.nextInt(200));
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, format, out)) {
+            throw new IllegalStateException("No ImageIO writer for " + format);
+        }
+        byte[] file = out.toByteArray();
+        prefix = Arrays.copyOf(file, Math.min(file.length, PREFIX_BYTES));
+    }
+
+    @Benchmark
+    public int headerParser() throws IOException {
+        ImageHeaderParser.ImageHeader header = ImageHeaderParser.parse(new ByteArrayInputStream(prefix));
+        return header != null ? header.getWidth() : 0;
+    }
+
+    /** The path before the parser: decode the whole prefix (fails, or is partial, when the file is larger). */
+    @Benchmark
+    public int imageIoRead() {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(prefix));
+            return image != null ? image.getWidth() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /** The parser's fallback: an ImageReader asked for the size only. */
+    @Benchmark
+    public int imageReaderMetadata() throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(prefix))) {
+            Iterator<ImageReader> it = ImageIO.getImageReaders(iis);
+            if (!it.hasNext()) {
+                return 0;
+            }
+            ImageReader reader = it.next();
+            try {
+                reader.setInput(iis, true, true);
+                return reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ImageHeaderParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}